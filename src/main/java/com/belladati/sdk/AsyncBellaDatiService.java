@@ -0,0 +1,997 @@
+package com.belladati.sdk;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.belladati.sdk.dashboard.Dashboard;
+import com.belladati.sdk.dashboard.DashboardInfo;
+import com.belladati.sdk.dataset.AttributeValue;
+import com.belladati.sdk.dataset.DataSet;
+import com.belladati.sdk.dataset.DataSetInfo;
+import com.belladati.sdk.dataset.data.DataRow;
+import com.belladati.sdk.dataset.data.DataTable;
+import com.belladati.sdk.dataset.source.DataSource;
+import com.belladati.sdk.dataset.source.DataSourceImport;
+import com.belladati.sdk.domain.Domain;
+import com.belladati.sdk.domain.DomainInfo;
+import com.belladati.sdk.filter.Filter;
+import com.belladati.sdk.filter.FilterExpression;
+import com.belladati.sdk.form.Form;
+import com.belladati.sdk.report.Comment;
+import com.belladati.sdk.report.Report;
+import com.belladati.sdk.report.ReportInfo;
+import com.belladati.sdk.user.User;
+import com.belladati.sdk.user.UserGroup;
+import com.belladati.sdk.user.UserRequestType;
+import com.belladati.sdk.util.BulkResult;
+import com.belladati.sdk.util.CachedList;
+import com.belladati.sdk.util.MultipartPiece;
+import com.belladati.sdk.util.PaginatedIdList;
+import com.belladati.sdk.util.PaginatedList;
+import com.belladati.sdk.util.Resource;
+import com.belladati.sdk.util.ResourceInfo;
+import com.belladati.sdk.view.ViewType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Asynchronous counterpart to {@link BellaDatiService}. Each method submits the
+ * corresponding blocking call to this service's {@link Executor} and
+ * immediately returns a {@link CompletableFuture} holding its result.
+ * <p>
+ * Exceptions thrown by the blocking call, such as a
+ * {@link com.belladati.sdk.exception.server.NotFoundException}, complete the
+ * returned future exceptionally.
+ * <p>
+ * Methods returning a {@link CachedList} or {@link PaginatedList} complete once
+ * the list has been loaded: cached lists are loaded using
+ * {@link CachedList#loadFirstTime()}, paginated lists have their first page
+ * loaded using {@link PaginatedList#load()}.
+ * <p>
+ * Methods setting up builders and queries, such as
+ * {@link BellaDatiService#setupViewExporter(String)} or
+ * {@link BellaDatiService#setupAggregationQuery(String)}, don't send requests
+ * themselves and have no asynchronous counterpart. Bulk loads occupy one
+ * thread of this service's executor while their requests run on the
+ * service's {@link ExecutionPolicy}.
+ * <p>
+ * Obtain an instance by calling {@link BellaDatiService#async()} or
+ * {@link BellaDatiService#async(Executor)}.
+ * 
+ * 
+ */
+public interface AsyncBellaDatiService {
+
+	/**
+	 * Returns the blocking service to which calls are delegated.
+	 * 
+	 * @return the blocking service to which calls are delegated
+	 */
+	BellaDatiService getService();
+
+	/**
+	 * Returns the executor running the blocking calls.
+	 * 
+	 * @return the executor running the blocking calls
+	 */
+	Executor getExecutor();
+
+	/**
+	 * Asynchronously loads the list of domains visible to the current user.
+	 * 
+	 * @return the loaded list of domains
+	 * @see BellaDatiService#getDomainInfo()
+	 */
+	default CompletableFuture<CachedList<DomainInfo>> getDomainInfo() {
+		return supply(() -> getService().getDomainInfo().loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously loads the domain with the specified ID.
+	 * 
+	 * @param id ID of the domain to load
+	 * @return the domain with the specified ID
+	 * @see BellaDatiService#loadDomain(String)
+	 */
+	default CompletableFuture<Domain> loadDomain(String id) {
+		return supply(() -> getService().loadDomain(id));
+	}
+
+	/**
+	 * Asynchronously loads the list of users for the given domain and user
+	 * group.
+	 * 
+	 * @param domainId ID of the domain
+	 * @param userGroupId optional ID of the user group
+	 * @return the loaded list of users
+	 * @see BellaDatiService#getDomainUsers(String, String)
+	 */
+	default CompletableFuture<CachedList<User>> getDomainUsers(String domainId, String userGroupId) {
+		return supply(() -> getService().getDomainUsers(domainId, userGroupId).loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously loads the list of user groups for the given domain.
+	 * 
+	 * @param domainId ID of the domain
+	 * @return the loaded list of user groups
+	 * @see BellaDatiService#getDomainUserGroups(String)
+	 */
+	default CompletableFuture<CachedList<UserGroup>> getDomainUserGroups(String domainId) {
+		return supply(() -> getService().getDomainUserGroups(domainId).loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously loads the first page of dashboards visible to the current
+	 * user.
+	 * 
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDashboardInfo()
+	 */
+	default CompletableFuture<PaginatedIdList<DashboardInfo>> getDashboardInfo() {
+		return supply(() -> {
+			PaginatedIdList<DashboardInfo> list = getService().getDashboardInfo();
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the dashboard with the specified ID.
+	 * 
+	 * @param id ID of the dashboard to load
+	 * @return the dashboard with the specified ID
+	 * @see BellaDatiService#loadDashboard(String)
+	 */
+	default CompletableFuture<Dashboard> loadDashboard(String id) {
+		return supply(() -> getService().loadDashboard(id));
+	}
+
+	/**
+	 * Asynchronously reloads a dashboard if it has changed on the server.
+	 * 
+	 * @param previous a previously loaded version of the dashboard
+	 * @return the given instance if the dashboard is unchanged, otherwise the
+	 *         current version
+	 * @see BellaDatiService#loadDashboardIfModified(Dashboard)
+	 */
+	default CompletableFuture<Dashboard> loadDashboardIfModified(Dashboard previous) {
+		return supply(() -> getService().loadDashboardIfModified(previous));
+	}
+
+	/**
+	 * Asynchronously loads a thumbnail image for the dashboard with the given
+	 * ID.
+	 * 
+	 * @param id ID of the dashboard whose thumbnail to load
+	 * @return a thumbnail image for the dashboard with the given ID
+	 * @see BellaDatiService#loadDashboardThumbnail(String)
+	 */
+	default CompletableFuture<Object> loadDashboardThumbnail(String id) {
+		return supply(() -> getService().loadDashboardThumbnail(id));
+	}
+
+	/**
+	 * Asynchronously loads the first page of reports visible to the current
+	 * user.
+	 * 
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getReportInfo()
+	 */
+	default CompletableFuture<PaginatedIdList<ReportInfo>> getReportInfo() {
+		return supply(() -> {
+			PaginatedIdList<ReportInfo> list = getService().getReportInfo();
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the report with the specified ID.
+	 * 
+	 * @param id ID of the report to load
+	 * @return the report with the specified ID
+	 * @see BellaDatiService#loadReport(String)
+	 */
+	default CompletableFuture<Report> loadReport(String id) {
+		return supply(() -> getService().loadReport(id));
+	}
+
+	/**
+	 * Asynchronously reloads a report if it has changed on the server.
+	 * 
+	 * @param previous a previously loaded version of the report
+	 * @return the given instance if the report is unchanged, otherwise the
+	 *         current version
+	 * @see BellaDatiService#loadReportIfModified(Report)
+	 */
+	default CompletableFuture<Report> loadReportIfModified(Report previous) {
+		return supply(() -> getService().loadReportIfModified(previous));
+	}
+
+	/**
+	 * Asynchronously loads a thumbnail image for the report with the given ID.
+	 * 
+	 * @param id ID of the report whose thumbnail to load
+	 * @return a thumbnail image for the report with the given ID
+	 * @see BellaDatiService#loadReportThumbnail(String)
+	 */
+	default CompletableFuture<Object> loadReportThumbnail(String id) {
+		return supply(() -> getService().loadReportThumbnail(id));
+	}
+
+	/**
+	 * Asynchronously loads the first page of comments of the report with the
+	 * given ID.
+	 * 
+	 * @param reportId ID of the report whose comments to access
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getReportComments(String)
+	 */
+	default CompletableFuture<PaginatedList<Comment>> getReportComments(String reportId) {
+		return supply(() -> getService().getReportComments(reportId).load());
+	}
+
+	/**
+	 * Asynchronously posts a comment to the report with the given ID.
+	 * 
+	 * @param reportId ID of the report to which to post a comment
+	 * @param text text of the comment to post
+	 * @return a future completing when the comment has been posted
+	 * @see BellaDatiService#postComment(String, String)
+	 */
+	default CompletableFuture<Void> postComment(String reportId, String text) {
+		return run(() -> getService().postComment(reportId, text));
+	}
+
+	/**
+	 * Asynchronously deletes a comment.
+	 * 
+	 * @param commentId ID of the comment to delete
+	 * @return a future completing when the comment has been deleted
+	 * @see BellaDatiService#deleteComment(String)
+	 */
+	default CompletableFuture<Void> deleteComment(String commentId) {
+		return run(() -> getService().deleteComment(commentId));
+	}
+
+	/**
+	 * Asynchronously loads the content of the view with the given ID and type.
+	 * 
+	 * @param viewId ID of the view to load
+	 * @param viewType type of the view to load
+	 * @param filters optional filters to use when loading the view
+	 * @return the content of the view
+	 * @see BellaDatiService#loadViewContent(String, ViewType, Filter...)
+	 */
+	default CompletableFuture<Object> loadViewContent(String viewId, ViewType viewType, Filter<?>... filters) {
+		return supply(() -> getService().loadViewContent(viewId, viewType, filters));
+	}
+
+	/**
+	 * Asynchronously loads the content of the view with the given ID and type.
+	 * 
+	 * @param viewId ID of the view to load
+	 * @param viewType type of the view to load
+	 * @param filters filters to use when loading the view
+	 * @return the content of the view
+	 * @see BellaDatiService#loadViewContent(String, ViewType, Collection)
+	 */
+	default CompletableFuture<Object> loadViewContent(String viewId, ViewType viewType, Collection<Filter<?>> filters) {
+		return supply(() -> getService().loadViewContent(viewId, viewType, filters));
+	}
+
+	/**
+	 * Asynchronously creates a new image view in a report.
+	 * 
+	 * @param reportId ID of the target report
+	 * @param viewName name of the new image view
+	 * @param image image file
+	 * @param width width (percentage value) of the view
+	 * @param height height (absolute value in pixels) of the view
+	 * @return ID of the newly created view
+	 * @see BellaDatiService#createImageView(String, String, File, Integer,
+	 *      Integer)
+	 */
+	default CompletableFuture<String> createImageView(String reportId, String viewName, File image, Integer width,
+		Integer height) {
+		return supply(() -> getService().createImageView(reportId, viewName, image, width, height));
+	}
+
+	/**
+	 * Asynchronously updates the image in an existing image view.
+	 * 
+	 * @param viewId ID of the view to edit
+	 * @param image image file
+	 * @return a future completing when the image has been updated
+	 * @see BellaDatiService#editImageView(String, File)
+	 */
+	default CompletableFuture<Void> editImageView(String viewId, File image) {
+		return run(() -> getService().editImageView(viewId, image));
+	}
+
+	/**
+	 * Asynchronously loads the possible values for the attribute with the given
+	 * code in the data set with the specified ID.
+	 * 
+	 * @param dataSetId ID of the data set in which the attribute is defined
+	 * @param attributeCode code of the attribute whose values to load
+	 * @return the loaded list of attribute values
+	 * @see BellaDatiService#getAttributeValues(String, String)
+	 */
+	default CompletableFuture<CachedList<AttributeValue>> getAttributeValues(String dataSetId, String attributeCode) {
+		return supply(() -> getService().getAttributeValues(dataSetId, attributeCode).loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously edits the image of an attribute value.
+	 * 
+	 * @param dataSetId ID of the data set in which the attribute is defined
+	 * @param attributeCode code of the attribute
+	 * @param attributeValue value of the attribute
+	 * @param image image to post
+	 * @return a future completing when the image has been posted
+	 * @see BellaDatiService#postAttributeValueImage(String, String, String,
+	 *      File)
+	 */
+	default CompletableFuture<Void> postAttributeValueImage(String dataSetId, String attributeCode, String attributeValue,
+		File image) {
+		return run(() -> getService().postAttributeValueImage(dataSetId, attributeCode, attributeValue, image));
+	}
+
+	/**
+	 * Asynchronously loads the user with the given ID.
+	 * 
+	 * @param userId ID of the user to load
+	 * @return the user with the specified ID
+	 * @see BellaDatiService#loadUser(String)
+	 */
+	default CompletableFuture<User> loadUser(String userId) {
+		return supply(() -> getService().loadUser(userId));
+	}
+
+	/**
+	 * Asynchronously loads the user with the given username.
+	 * 
+	 * @param username login of the user to load
+	 * @return the user with the specified username
+	 * @see BellaDatiService#loadUserByUsername(String)
+	 */
+	default CompletableFuture<User> loadUserByUsername(String username) {
+		return supply(() -> getService().loadUserByUsername(username));
+	}
+
+	/**
+	 * Asynchronously loads the profile image of the user with the given ID.
+	 * 
+	 * @param userId ID of the user whose image to load
+	 * @return the profile image of the user with the given ID
+	 * @see BellaDatiService#loadUserImage(String)
+	 */
+	default CompletableFuture<Object> loadUserImage(String userId) {
+		return supply(() -> getService().loadUserImage(userId));
+	}
+
+	/**
+	 * Asynchronously loads the active status of the user with the given ID.
+	 * 
+	 * @param userId ID of the user whose status to load
+	 * @return the active status of the user with the given ID
+	 * @see BellaDatiService#loadUserStatus(String)
+	 */
+	default CompletableFuture<String> loadUserStatus(String userId) {
+		return supply(() -> getService().loadUserStatus(userId));
+	}
+
+	/**
+	 * Asynchronously posts the active status to the user with the given ID.
+	 * 
+	 * @param userId ID of the user to update
+	 * @param status new user status to post
+	 * @return a future completing when the status has been posted
+	 * @see BellaDatiService#postUserStatus(String, String)
+	 */
+	default CompletableFuture<Void> postUserStatus(String userId, String status) {
+		return run(() -> getService().postUserStatus(userId, status));
+	}
+
+	/**
+	 * Asynchronously loads the first page of data sets visible to the current
+	 * user.
+	 * 
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetInfo()
+	 */
+	default CompletableFuture<PaginatedIdList<DataSetInfo>> getDataSetInfo() {
+		return supply(() -> {
+			PaginatedIdList<DataSetInfo> list = getService().getDataSetInfo();
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the data set with the specified ID.
+	 * 
+	 * @param id ID of the data set to load
+	 * @return the data set with the specified ID
+	 * @see BellaDatiService#loadDataSet(String)
+	 */
+	default CompletableFuture<DataSet> loadDataSet(String id) {
+		return supply(() -> getService().loadDataSet(id));
+	}
+
+	/**
+	 * Asynchronously reloads a data set if it has changed on the server.
+	 * 
+	 * @param previous a previously loaded version of the data set
+	 * @return the given instance if the data set is unchanged, otherwise the
+	 *         current version
+	 * @see BellaDatiService#loadDataSetIfModified(DataSet)
+	 */
+	default CompletableFuture<DataSet> loadDataSetIfModified(DataSet previous) {
+		return supply(() -> getService().loadDataSetIfModified(previous));
+	}
+
+	/**
+	 * Asynchronously loads the first page of data of the data set with the
+	 * given ID.
+	 * 
+	 * @param dataSetId ID of the data set whose data to load
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetData(String)
+	 */
+	default CompletableFuture<PaginatedIdList<DataRow>> getDataSetData(String dataSetId) {
+		return supply(() -> {
+			PaginatedIdList<DataRow> list = getService().getDataSetData(dataSetId);
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the first page of filtered data of the data set
+	 * with the given ID.
+	 * 
+	 * @param dataSetId ID of the data set whose data to load
+	 * @param filters filters to apply
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetDataFiltered(String, Filter...)
+	 */
+	default CompletableFuture<PaginatedIdList<DataRow>> getDataSetDataFiltered(String dataSetId, Filter<?>... filters) {
+		return supply(() -> {
+			PaginatedIdList<DataRow> list = getService().getDataSetDataFiltered(dataSetId, filters);
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the first page of data of the data set with the
+	 * given ID matching the given filter expression.
+	 * 
+	 * @param dataSetId ID of the data set whose data to load
+	 * @param expression the filter expression to match
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetDataFiltered(String, FilterExpression)
+	 */
+	default CompletableFuture<PaginatedIdList<DataRow>> getDataSetDataFiltered(String dataSetId, FilterExpression expression) {
+		return supply(() -> {
+			PaginatedIdList<DataRow> list = getService().getDataSetDataFiltered(dataSetId, expression);
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the first page of the given columns of data of the
+	 * data set with the given ID.
+	 * 
+	 * @param dataSetId ID of the data set whose data to load
+	 * @param columns codes of the attributes and indicators to load
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetData(String, Collection)
+	 */
+	default CompletableFuture<PaginatedIdList<DataRow>> getDataSetData(String dataSetId, Collection<String> columns) {
+		return supply(() -> {
+			PaginatedIdList<DataRow> list = getService().getDataSetData(dataSetId, columns);
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the first page of the given columns of filtered
+	 * data of the data set with the given ID.
+	 * 
+	 * @param dataSetId ID of the data set whose data to load
+	 * @param columns codes of the attributes and indicators to load
+	 * @param filters filters to apply
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetDataFiltered(String, Collection, Filter...)
+	 */
+	default CompletableFuture<PaginatedIdList<DataRow>> getDataSetDataFiltered(String dataSetId, Collection<String> columns,
+		Filter<?>... filters) {
+		return supply(() -> {
+			PaginatedIdList<DataRow> list = getService().getDataSetDataFiltered(dataSetId, columns, filters);
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously loads the first page of the given columns of data of the
+	 * data set with the given ID matching the given filter expression.
+	 * 
+	 * @param dataSetId ID of the data set whose data to load
+	 * @param columns codes of the attributes and indicators to load
+	 * @param expression the filter expression to match
+	 * @return a paginated list with its first page loaded
+	 * @see BellaDatiService#getDataSetDataFiltered(String, Collection, FilterExpression)
+	 */
+	default CompletableFuture<PaginatedIdList<DataRow>> getDataSetDataFiltered(String dataSetId, Collection<String> columns,
+		FilterExpression expression) {
+		return supply(() -> {
+			PaginatedIdList<DataRow> list = getService().getDataSetDataFiltered(dataSetId, columns, expression);
+			list.load();
+			return list;
+		});
+	}
+
+	/**
+	 * Asynchronously posts a row to the data set with the given ID.
+	 * 
+	 * @param dataSetId ID of the data set to which to post a row
+	 * @param row data row to post
+	 * @return a future completing when the row has been posted
+	 * @see BellaDatiService#postDataSetData(String, DataRow)
+	 */
+	default CompletableFuture<Void> postDataSetData(String dataSetId, DataRow row) {
+		return run(() -> getService().postDataSetData(dataSetId, row));
+	}
+
+	/**
+	 * Asynchronously posts rows to the data set with the given ID.
+	 * 
+	 * @param dataSetId ID of the data set to which to post rows
+	 * @param rows data rows to post
+	 * @return a future completing when the rows have been posted
+	 * @see BellaDatiService#postDataSetData(String, Collection)
+	 */
+	default CompletableFuture<Void> postDataSetData(String dataSetId, Collection<DataRow> rows) {
+		return run(() -> getService().postDataSetData(dataSetId, rows));
+	}
+
+	/**
+	 * Asynchronously updates rows in the data set that match on the given
+	 * attributes.
+	 * 
+	 * @param dataSetId ID of the data set to update
+	 * @param rows data rows to patch
+	 * @param matchAttributes attributes on which to match existing rows
+	 * @return a future completing when the rows have been patched
+	 * @see BellaDatiService#patchDataSetData(String, Collection, Collection)
+	 */
+	default CompletableFuture<Void> patchDataSetData(String dataSetId, Collection<DataRow> rows,
+		Collection<String> matchAttributes) {
+		return run(() -> getService().patchDataSetData(dataSetId, rows, matchAttributes));
+	}
+
+	/**
+	 * Asynchronously deletes data matching the given filters and inserts new
+	 * rows.
+	 * 
+	 * @param dataSetId ID of the data set to update
+	 * @param rows data rows to insert
+	 * @param filters filters selecting the data to delete
+	 * @return a future completing when the data has been replaced
+	 * @see BellaDatiService#replaceDataSetData(String, Collection, Filter...)
+	 */
+	default CompletableFuture<Void> replaceDataSetData(String dataSetId, Collection<DataRow> rows, Filter<?>... filters) {
+		return run(() -> getService().replaceDataSetData(dataSetId, rows, filters));
+	}
+
+	/**
+	 * Asynchronously deletes data matching the given filter expression and
+	 * inserts new rows.
+	 * 
+	 * @param dataSetId ID of the data set to update
+	 * @param rows data rows to insert
+	 * @param expression the filter expression selecting the data to delete
+	 * @return a future completing when the data has been replaced
+	 * @see BellaDatiService#replaceDataSetData(String, Collection, FilterExpression)
+	 */
+	default CompletableFuture<Void> replaceDataSetData(String dataSetId, Collection<DataRow> rows, FilterExpression expression) {
+		return run(() -> getService().replaceDataSetData(dataSetId, rows, expression));
+	}
+
+	/**
+	 * Asynchronously deletes data matching the given filters.
+	 * 
+	 * @param dataSetId ID of the data set to update
+	 * @param filters filters selecting the data to delete
+	 * @return a future completing when the data has been deleted
+	 * @see BellaDatiService#deleteDataSetData(String, Filter...)
+	 */
+	default CompletableFuture<Void> deleteDataSetData(String dataSetId, Filter<?>... filters) {
+		return run(() -> getService().deleteDataSetData(dataSetId, filters));
+	}
+
+	/**
+	 * Asynchronously deletes data matching the given filter expression.
+	 * 
+	 * @param dataSetId ID of the data set to update
+	 * @param expression the filter expression selecting the data to delete
+	 * @return a future completing when the data has been deleted
+	 * @see BellaDatiService#deleteDataSetData(String, FilterExpression)
+	 */
+	default CompletableFuture<Void> deleteDataSetData(String dataSetId, FilterExpression expression) {
+		return run(() -> getService().deleteDataSetData(dataSetId, expression));
+	}
+
+	/**
+	 * Asynchronously uploads the given data into a data set.
+	 * 
+	 * @param id ID of the data set to upload to
+	 * @param data the data to upload
+	 * @return a future completing when the data has been uploaded
+	 * @see BellaDatiService#uploadData(String, DataTable)
+	 */
+	default CompletableFuture<Void> uploadData(String id, DataTable data) {
+		return run(() -> getService().uploadData(id, data));
+	}
+
+	/**
+	 * Asynchronously uploads the given image into BellaDati Media Gallery.
+	 * 
+	 * @param image image to upload
+	 * @param name optional name visible in the Media Gallery
+	 * @return a future completing when the image has been uploaded
+	 * @see BellaDatiService#uploadImage(File, String)
+	 */
+	default CompletableFuture<Void> uploadImage(File image, String name) {
+		return run(() -> getService().uploadImage(image, name));
+	}
+
+	/**
+	 * Asynchronously loads the list of data sources for the data set with the
+	 * given ID.
+	 * 
+	 * @param id ID of the data set whose sources to load
+	 * @return the loaded list of data sources
+	 * @see BellaDatiService#getDataSources(String)
+	 */
+	default CompletableFuture<CachedList<DataSource>> getDataSources(String id) {
+		return supply(() -> getService().getDataSources(id).loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously loads the list of import configurations for the data
+	 * source with the given ID.
+	 * 
+	 * @param id ID of the data source whose import configurations to load
+	 * @return the loaded list of import configurations
+	 * @see BellaDatiService#getDataSourceImports(String)
+	 */
+	default CompletableFuture<CachedList<DataSourceImport>> getDataSourceImports(String id) {
+		return supply(() -> getService().getDataSourceImports(id).loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously makes a post request to the given URI, relative to the
+	 * server's URL.
+	 * 
+	 * @param uri URI to post to
+	 * @return the server's response
+	 * @see BellaDatiService#post(String)
+	 */
+	default CompletableFuture<byte[]> post(String uri) {
+		return supply(() -> getService().post(uri));
+	}
+
+	/**
+	 * Asynchronously makes a post request to the given URI, relative to the
+	 * server's URL.
+	 * 
+	 * @param uri URI to post to
+	 * @param uriParameters parameters to append to the URI
+	 * @return the server's response
+	 * @see BellaDatiService#post(String, Map)
+	 */
+	default CompletableFuture<byte[]> post(String uri, Map<String, String> uriParameters) {
+		return supply(() -> getService().post(uri, uriParameters));
+	}
+
+	/**
+	 * Asynchronously makes a post request to the given URI, relative to the
+	 * server's URL.
+	 * 
+	 * @param uri URI to post to
+	 * @param content body of the request
+	 * @return the server's response
+	 * @see BellaDatiService#post(String, byte[])
+	 */
+	default CompletableFuture<byte[]> post(String uri, byte[] content) {
+		return supply(() -> getService().post(uri, content));
+	}
+
+	/**
+	 * Asynchronously makes a post request to the given URI, relative to the
+	 * server's URL.
+	 * 
+	 * @param uri URI to post to
+	 * @param uriParameters parameters to append to the URI
+	 * @param content body of the request
+	 * @return the server's response
+	 * @see BellaDatiService#post(String, Map, byte[])
+	 */
+	default CompletableFuture<byte[]> post(String uri, Map<String, String> uriParameters, byte[] content) {
+		return supply(() -> getService().post(uri, uriParameters, content));
+	}
+
+	/**
+	 * Asynchronously makes a form post request to the given URI, relative to
+	 * the server's URL.
+	 * 
+	 * @param uri URI to post to
+	 * @param formParameters parameters to send as a form in the request body
+	 * @return the server's response
+	 * @see BellaDatiService#postForm(String, Map)
+	 */
+	default CompletableFuture<byte[]> postForm(String uri, Map<String, String> formParameters) {
+		return supply(() -> getService().postForm(uri, formParameters));
+	}
+
+	/**
+	 * Asynchronously makes a form post request to the given URI, relative to
+	 * the server's URL.
+	 * 
+	 * @param uri URI to post to
+	 * @param uriParameters parameters to append to the URI
+	 * @param formParameters parameters to send as a form in the request body
+	 * @return the server's response
+	 * @see BellaDatiService#postForm(String, Map, Map)
+	 */
+	default CompletableFuture<byte[]> postForm(String uri, Map<String, String> uriParameters,
+		Map<String, String> formParameters) {
+		return supply(() -> getService().postForm(uri, uriParameters, formParameters));
+	}
+
+	/**
+	 * Asynchronously makes a multipart/form-data post request to the given
+	 * URI, relative to the server's URL.
+	 * 
+	 * @param relativeUri URI to post to
+	 * @param multipart parts to send in the request body
+	 * @return the server's response
+	 * @see BellaDatiService#postMultipart(String, List)
+	 */
+	default CompletableFuture<byte[]> postMultipart(String relativeUri, List<? extends MultipartPiece<?>> multipart) {
+		return supply(() -> getService().postMultipart(relativeUri, multipart));
+	}
+
+	/**
+	 * Asynchronously makes a get request to the given URI, relative to the
+	 * server's URL.
+	 * 
+	 * @param uri URI to get
+	 * @return the server's response
+	 * @see BellaDatiService#get(String)
+	 */
+	default CompletableFuture<byte[]> get(String uri) {
+		return supply(() -> getService().get(uri));
+	}
+
+	/**
+	 * Asynchronously makes a get request to the given URI, relative to the
+	 * server's URL.
+	 * 
+	 * @param uri URI to get
+	 * @param uriParameters parameters to append to the URI
+	 * @return the server's response
+	 * @see BellaDatiService#get(String, Map)
+	 */
+	default CompletableFuture<byte[]> get(String uri, Map<String, String> uriParameters) {
+		return supply(() -> getService().get(uri, uriParameters));
+	}
+
+	/**
+	 * Asynchronously loads the list of import forms.
+	 * 
+	 * @return the loaded list of import forms
+	 * @see BellaDatiService#getImportForms()
+	 */
+	default CompletableFuture<CachedList<Form>> getImportForms() {
+		return supply(() -> getService().getImportForms().loadFirstTime());
+	}
+
+	/**
+	 * Asynchronously loads the import form with the specified ID.
+	 * 
+	 * @param id ID of the import form to load
+	 * @return the import form with the specified ID
+	 * @see BellaDatiService#loadImportForm(String)
+	 */
+	default CompletableFuture<Form> loadImportForm(String id) {
+		return supply(() -> getService().loadImportForm(id));
+	}
+
+	/**
+	 * Asynchronously loads the file with the given absolute path.
+	 * 
+	 * @param absolutePath absolute path of the file to load
+	 * @return the file as a stream
+	 * @see BellaDatiService#loadFile(String)
+	 */
+	default CompletableFuture<Object> loadFile(String absolutePath) {
+		return supply(() -> getService().loadFile(absolutePath));
+	}
+
+	/**
+	 * Asynchronously merges multiple PDF files into one PDF file.
+	 * 
+	 * @param paths list of absolute paths where source PDF files are located
+	 * @return the PDF file as a stream
+	 * @see BellaDatiService#mergePdfFiles(List)
+	 */
+	default CompletableFuture<Object> mergePdfFiles(List<String> paths) {
+		return supply(() -> getService().mergePdfFiles(paths));
+	}
+
+	/**
+	 * Asynchronously creates a user request of the desired type.
+	 * 
+	 * @param username username of the user the request is created for
+	 * @param requestType specifies the type of the request
+	 * @return request ID and request code separated by ";"
+	 * @see BellaDatiService#createUserRequest(String, UserRequestType)
+	 */
+	default CompletableFuture<String> createUserRequest(String username, UserRequestType requestType) {
+		return supply(() -> getService().createUserRequest(username, requestType));
+	}
+
+	/**
+	 * Asynchronously creates an access token for the given user.
+	 * 
+	 * @param username username of the user the access token is created for
+	 * @param validity if set, specifies the validity (in seconds) of issued
+	 *            token
+	 * @param domainId specifies the domain for which the access should be
+	 *            granted
+	 * @return OAuth token and OAuth token secret separated by ";"
+	 * @see BellaDatiService#createAccessToken(String, Integer, String)
+	 */
+	default CompletableFuture<String> createAccessToken(String username, Integer validity, String domainId) {
+		return supply(() -> getService().createAccessToken(username, validity, domainId));
+	}
+
+	/**
+	 * Asynchronously loads a JSON response from the given endpoint.
+	 * 
+	 * @param uri endpoint URI
+	 * @return the JSON response
+	 * @see BellaDatiService#loadJson(String)
+	 */
+	default CompletableFuture<JsonNode> loadJson(String uri) {
+		return supply(() -> getService().loadJson(uri));
+	}
+
+	/**
+	 * Asynchronously loads the reports with the given IDs in parallel.
+	 * 
+	 * @param ids IDs of the reports to load
+	 * @param parallelism maximum number of reports loaded at the same time
+	 * @return the loaded reports and the errors of failed loads, by ID
+	 * @see BellaDatiService#loadReports(Collection, int)
+	 */
+	default CompletableFuture<BulkResult<Report>> loadReports(Collection<String> ids, int parallelism) {
+		return supply(() -> getService().loadReports(ids, parallelism));
+	}
+
+	/**
+	 * Asynchronously loads the data sets with the given IDs in parallel.
+	 * 
+	 * @param ids IDs of the data sets to load
+	 * @param parallelism maximum number of data sets loaded at the same time
+	 * @return the loaded data sets and the errors of failed loads, by ID
+	 * @see BellaDatiService#loadDataSets(Collection, int)
+	 */
+	default CompletableFuture<BulkResult<DataSet>> loadDataSets(Collection<String> ids, int parallelism) {
+		return supply(() -> getService().loadDataSets(ids, parallelism));
+	}
+
+	/**
+	 * Asynchronously loads the dashboards with the given IDs in parallel.
+	 * 
+	 * @param ids IDs of the dashboards to load
+	 * @param parallelism maximum number of dashboards loaded at the same time
+	 * @return the loaded dashboards and the errors of failed loads, by ID
+	 * @see BellaDatiService#loadDashboards(Collection, int)
+	 */
+	default CompletableFuture<BulkResult<Dashboard>> loadDashboards(Collection<String> ids, int parallelism) {
+		return supply(() -> getService().loadDashboards(ids, parallelism));
+	}
+
+	/**
+	 * Asynchronously loads the content of the given views in parallel. The
+	 * same filters are applied to each view.
+	 * 
+	 * @param views types of the views to load, by view ID
+	 * @param filters filters to use when loading the views
+	 * @param parallelism maximum number of views loaded at the same time
+	 * @return the view contents and the errors of failed loads, by view ID
+	 * @see BellaDatiService#loadViewContents(Map, Collection, int)
+	 */
+	default CompletableFuture<BulkResult<Object>> loadViewContents(Map<String, ViewType> views, Collection<Filter<?>> filters,
+		int parallelism) {
+		return supply(() -> getService().loadViewContents(views, filters, parallelism));
+	}
+
+	/**
+	 * Asynchronously loads the details of all given resources in parallel.
+	 * 
+	 * @param infos resources whose details to load
+	 * @param parallelism maximum number of resources loaded at the same time
+	 * @return the loaded resources and the errors of failed loads, by ID
+	 * @see BellaDatiService#loadDetails(Iterable, int)
+	 */
+	default <T extends Resource> CompletableFuture<BulkResult<T>> loadDetails(Iterable<? extends ResourceInfo<T>> infos,
+		int parallelism) {
+		return supply(() -> getService().loadDetails(infos, parallelism));
+	}
+
+	/**
+	 * Submits the given call to this service's executor. Any exception thrown
+	 * by the call, checked or unchecked, completes the future exceptionally.
+	 * 
+	 * @param call the blocking call to run
+	 * @return a future holding the call's result
+	 */
+	private <T> CompletableFuture<T> supply(Callable<T> call) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		try {
+			getExecutor().execute(() -> {
+				if (future.isDone()) {
+					// cancelled before it was started
+					return;
+				}
+				try {
+					future.complete(call.call());
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Submits the given call without result to this service's executor.
+	 * 
+	 * @param call the blocking call to run
+	 * @return a future completing when the call has finished
+	 */
+	private CompletableFuture<Void> run(BlockingCall call) {
+		return supply(() -> {
+			call.run();
+			return null;
+		});
+	}
+
+	/**
+	 * A blocking call without result that may throw checked exceptions.
+	 * 
+	 * 
+	 */
+	@FunctionalInterface
+	interface BlockingCall {
+		void run() throws Exception;
+	}
+}
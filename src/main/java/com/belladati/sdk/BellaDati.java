@@ -35,6 +35,9 @@ import com.belladati.sdk.exception.InvalidImplementationException;
  * All timeouts are set in milliseconds. These properties only affect new
  * connections being created and don't change existing connections. If needed,
  * set the timeouts before calling any of the {@link #connect()} methods.
+ * <p>
+ * To choose how blocking calls are scheduled, e.g. to run them on virtual
+ * threads, connect using an {@link ExecutionPolicy}.
  * 
  * 
  * 
@@ -76,9 +79,55 @@ public class BellaDati {
 		return connect(baseUrl, true);
 	}
 
+	/**
+	 * Connects to a BellaDati server hosted at the specified URL, scheduling
+	 * blocking calls according to the given {@link ExecutionPolicy}.
+	 * <p>
+	 * Use {@link ExecutionPolicy#virtualThreads(int)} to run asynchronous
+	 * calls on virtual threads while limiting the number of requests sent to
+	 * the server at the same time.
+	 * 
+	 * @param baseUrl URL of the BellaDati server
+	 * @param executionPolicy policy determining how blocking calls are
+	 *            scheduled
+	 * @return a connection to the BellaDati server hosted at the specified URL
+	 */
+	public static BellaDatiConnection connect(String baseUrl, ExecutionPolicy executionPolicy) {
+		return connect(baseUrl, false, executionPolicy);
+	}
+
+	/**
+	 * Connects to a BellaDati server hosted at the specified URL, scheduling
+	 * blocking calls according to the given {@link ExecutionPolicy}. This
+	 * connection accepts servers using self-signed SSL certificates.
+	 * <p>
+	 * <b>Warning:</b> Avoid using this type of connection whenever possible.
+	 * See {@link #connectInsecure(String)} for details.
+	 * 
+	 * @param baseUrl URL of the BellaDati server
+	 * @param executionPolicy policy determining how blocking calls are
+	 *            scheduled
+	 * @return a connection to the BellaDati server hosted at the specified URL
+	 */
+	public static BellaDatiConnection connectInsecure(String baseUrl, ExecutionPolicy executionPolicy) {
+		return connect(baseUrl, true, executionPolicy);
+	}
+
 	private static BellaDatiConnection connect(String baseUrl, boolean trustSelfSigned) {
+		return instantiate(new Class<?>[] { String.class, Boolean.TYPE }, baseUrl, trustSelfSigned);
+	}
+
+	private static BellaDatiConnection connect(String baseUrl, boolean trustSelfSigned, ExecutionPolicy executionPolicy) {
+		if (executionPolicy == null) {
+			throw new IllegalArgumentException("Execution policy may not be null");
+		}
+		return instantiate(new Class<?>[] { String.class, Boolean.TYPE, ExecutionPolicy.class }, baseUrl, trustSelfSigned,
+			executionPolicy);
+	}
+
+	private static BellaDatiConnection instantiate(Class<?>[] parameterTypes, Object... arguments) {
 		try {
-			return (BellaDatiConnection) getConnectionConstructor().newInstance(baseUrl, trustSelfSigned);
+			return (BellaDatiConnection) getConnectionConstructor(parameterTypes).newInstance(arguments);
 		} catch (ClassNotFoundException e) {
 			throw new InvalidImplementationException("Failed to instantiate connection", e);
 		} catch (NoSuchMethodException e) {
@@ -102,16 +151,17 @@ public class BellaDati {
 	 * Reflectively loads the implementation's constructor to open a
 	 * {@link BellaDatiConnection}.
 	 * 
+	 * @param parameterTypes parameter types of the constructor
 	 * @return the constructor of a {@link BellaDatiConnection} implementation
 	 * @throws ClassNotFoundException if the implementing class isn't found
 	 * @throws NoSuchMethodException if no constructor exists for the expected
 	 *             arguments
 	 * @throws SecurityException if access is denied
 	 */
-	private static Constructor<?> getConnectionConstructor() throws ClassNotFoundException, NoSuchMethodException,
-		SecurityException {
+	private static Constructor<?> getConnectionConstructor(Class<?>... parameterTypes) throws ClassNotFoundException,
+		NoSuchMethodException, SecurityException {
 		Class<?> clazz = Class.forName("com.belladati.sdk.impl.BellaDatiConnectionImpl");
-		Constructor<?> constructor = clazz.getDeclaredConstructor(String.class, Boolean.TYPE);
+		Constructor<?> constructor = clazz.getDeclaredConstructor(parameterTypes);
 		constructor.setAccessible(true);
 		return constructor;
 	}
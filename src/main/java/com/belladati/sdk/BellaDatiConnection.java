@@ -80,4 +80,14 @@ public interface BellaDatiConnection extends Serializable {
 	 */
 	BellaDatiService xAuth(String consumerKey, String consumerSecret, String username, String password)
 		throws ConnectionException, AuthorizationException;
+
+	/**
+	 * Returns the policy determining how blocking calls made through this
+	 * connection and its services are scheduled.
+	 * 
+	 * @return the execution policy of this connection
+	 */
+	default ExecutionPolicy getExecutionPolicy() {
+		return ExecutionPolicy.platformThreads();
+	}
 }
@@ -5,14 +5,19 @@ import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import com.belladati.sdk.dashboard.Dashboard;
 import com.belladati.sdk.dashboard.DashboardInfo;
 import com.belladati.sdk.dataset.AttributeValue;
 import com.belladati.sdk.dataset.DataSet;
 import com.belladati.sdk.dataset.DataSetInfo;
+import com.belladati.sdk.dataset.aggregation.AggregationQuery;
+import com.belladati.sdk.dataset.data.ColumnLayout;
 import com.belladati.sdk.dataset.data.DataRow;
 import com.belladati.sdk.dataset.data.DataTable;
 import com.belladati.sdk.dataset.source.DataSource;
@@ -26,6 +31,7 @@ import com.belladati.sdk.exception.dataset.data.UnknownServerColumnException;
 import com.belladati.sdk.exception.server.InvalidStreamException;
 import com.belladati.sdk.exception.server.NotFoundException;
 import com.belladati.sdk.filter.Filter;
+import com.belladati.sdk.filter.FilterExpression;
 import com.belladati.sdk.form.Form;
 import com.belladati.sdk.form.FormDataPostBuilder;
 import com.belladati.sdk.report.Comment;
@@ -37,12 +43,15 @@ import com.belladati.sdk.user.UserEditBuilder;
 import com.belladati.sdk.user.UserGroup;
 import com.belladati.sdk.user.UserGroupCreateBuilder;
 import com.belladati.sdk.user.UserRequestType;
+import com.belladati.sdk.util.BulkResult;
 import com.belladati.sdk.util.CachedCollection;
 import com.belladati.sdk.util.CachedList;
 import com.belladati.sdk.util.MultipartPiece;
 import com.belladati.sdk.util.PostBuilder;
 import com.belladati.sdk.util.PaginatedIdList;
 import com.belladati.sdk.util.PaginatedList;
+import com.belladati.sdk.util.Resource;
+import com.belladati.sdk.util.ResourceInfo;
 import com.belladati.sdk.view.ImageView;
 import com.belladati.sdk.view.ViewLoader;
 import com.belladati.sdk.view.ViewType;
@@ -180,6 +189,26 @@ public interface BellaDatiService extends Serializable {
 	 */
 	Dashboard loadDashboard(String id) throws NotFoundException;
 
+	/**
+	 * Loads the dashboard again if it has changed since the given version was
+	 * loaded. If it hasn't changed, the given instance is returned, so callers
+	 * can check for changes by comparing references.
+	 * <p>
+	 * Implementations send a conditional request using the dashboard's
+	 * {@link Dashboard#getCacheValidator() validator}, so the server doesn't
+	 * send an unchanged dashboard and it isn't parsed again. The default
+	 * implementation loads the dashboard and compares the validators.
+	 * 
+	 * @param previous a previously loaded version of the dashboard
+	 * @return the given instance if the dashboard is unchanged, otherwise
+	 *         the current version
+	 * @throws NotFoundException if the dashboard no longer exists
+	 */
+	default Dashboard loadDashboardIfModified(Dashboard previous) throws NotFoundException {
+		Dashboard current = loadDashboard(previous.getId());
+		return previous.getCacheValidator().matches(current.getCacheValidator()) ? previous : current;
+	}
+
 	/**
 	 * Loads a thumbnail image for the dashboard with the given ID. The Java
 	 * type of the image being returned depends on the implementation.
@@ -216,6 +245,26 @@ public interface BellaDatiService extends Serializable {
 	 */
 	Report loadReport(String id) throws NotFoundException;
 
+	/**
+	 * Loads the report again if it has changed since the given version was
+	 * loaded. If it hasn't changed, the given instance is returned, so callers
+	 * can check for changes by comparing references.
+	 * <p>
+	 * Implementations send a conditional request using the report's
+	 * {@link Report#getCacheValidator() validator}, so the server doesn't
+	 * send an unchanged report and it isn't parsed again. The default
+	 * implementation loads the report and compares the validators.
+	 * 
+	 * @param previous a previously loaded version of the report
+	 * @return the given instance if the report is unchanged, otherwise
+	 *         the current version
+	 * @throws NotFoundException if the report no longer exists
+	 */
+	default Report loadReportIfModified(Report previous) throws NotFoundException {
+		Report current = loadReport(previous.getId());
+		return previous.getCacheValidator().matches(current.getCacheValidator()) ? previous : current;
+	}
+
 	/**
 	 * Loads a thumbnail image for the report with the given ID. The Java type
 	 * of the image being returned depends on the implementation.
@@ -419,6 +468,26 @@ public interface BellaDatiService extends Serializable {
 	 */
 	DataSet loadDataSet(String id) throws NotFoundException;
 
+	/**
+	 * Loads the data set again if it has changed since the given version was
+	 * loaded. If it hasn't changed, the given instance is returned, so callers
+	 * can check for changes by comparing references.
+	 * <p>
+	 * Implementations send a conditional request using the data set's
+	 * {@link DataSet#getCacheValidator() validator}, so the server doesn't
+	 * send an unchanged data set and it isn't parsed again. The default
+	 * implementation loads the data set and compares the validators.
+	 * 
+	 * @param previous a previously loaded version of the data set
+	 * @return the given instance if the data set is unchanged, otherwise
+	 *         the current version
+	 * @throws NotFoundException if the data set no longer exists
+	 */
+	default DataSet loadDataSetIfModified(DataSet previous) throws NotFoundException {
+		DataSet current = loadDataSet(previous.getId());
+		return previous.getCacheValidator().matches(current.getCacheValidator()) ? previous : current;
+	}
+
 	/**
 	 * Returns a paginated list to access data set data visible to the current user.
 	 * <p>
@@ -443,10 +512,105 @@ public interface BellaDatiService extends Serializable {
 	 */
 	PaginatedIdList<DataRow> getDataSetDataFiltered(String dataSetId, Filter<?>... filters) throws NotFoundException;
 
+	/**
+	 * Returns a paginated list to access data set data matching the given
+	 * filter expression. The expression is {@link FilterExpression#optimize()
+	 * optimized} and sent to the server in a single request.
+	 * <p>
+	 * The server only accepts expressions that optimize to a conjunction of
+	 * filters on distinct attributes. Other expressions, such as OR across
+	 * different attributes, are rejected; load data matching a broader
+	 * conjunction and select the matching rows using
+	 * {@link FilterExpression#toPredicate()} instead.
+	 * 
+	 * @param dataSetId ID of the data set
+	 * @param expression the filter expression to match
+	 * @return a paginated list to access the matching data
+	 * @throws NotFoundException if the ID wasn't found
+	 * @throws UnsupportedOperationException if the expression cannot be sent
+	 *             to the server
+	 * @see FilterExpression#toFilters()
+	 */
+	default PaginatedIdList<DataRow> getDataSetDataFiltered(String dataSetId, FilterExpression expression)
+		throws NotFoundException, UnsupportedOperationException {
+		return getDataSetDataFiltered(dataSetId, expression.toFilters());
+	}
+
+	/**
+	 * Returns a paginated list to access only the given columns of data set
+	 * data visible to the current user. Only the projected columns are sent
+	 * by the server, and the loaded rows hold only their values.
+	 * <p>
+	 * All rows of the list share one {@link ColumnLayout} of the projected
+	 * columns, in the given order.
+	 * 
+	 * @param dataSetId ID of the data set
+	 * @param columns codes of the attributes and indicators to load
+	 * @return a paginated list to access the projected data
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see #getDataSetDataFiltered(String, Collection, Filter...)
+	 */
+	default PaginatedIdList<DataRow> getDataSetData(String dataSetId, Collection<String> columns)
+		throws NotFoundException {
+		return getDataSetDataFiltered(dataSetId, columns);
+	}
+
+	/**
+	 * Returns a filtered paginated list to access only the given columns of
+	 * data set data visible to the current user. Only the projected columns
+	 * are sent by the server, and the loaded rows hold only their values.
+	 * Filters may refer to columns that aren't projected.
+	 * <p>
+	 * All rows of the list share one {@link ColumnLayout} of the projected
+	 * columns, in the given order.
+	 * 
+	 * @param dataSetId ID of the data set
+	 * @param columns codes of the attributes and indicators to load
+	 * @param filters filters the rows must match
+	 * @return a paginated list to access the projected data
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see <a href="http://support.belladati.com/techdoc/GET+Data+Set+Data">GET Data Set Data</a>
+	 */
+	PaginatedIdList<DataRow> getDataSetDataFiltered(String dataSetId, Collection<String> columns, Filter<?>... filters)
+		throws NotFoundException;
+
+	/**
+	 * Returns a paginated list to access only the given columns of data set
+	 * data matching the given filter expression. The expression is
+	 * {@link FilterExpression#optimize() optimized} and sent to the server in
+	 * a single request.
+	 * 
+	 * @param dataSetId ID of the data set
+	 * @param columns codes of the attributes and indicators to load
+	 * @param expression the filter expression to match
+	 * @return a paginated list to access the projected data
+	 * @throws NotFoundException if the ID wasn't found
+	 * @throws UnsupportedOperationException if the expression cannot be sent
+	 *             to the server
+	 * @see #getDataSetDataFiltered(String, FilterExpression)
+	 */
+	default PaginatedIdList<DataRow> getDataSetDataFiltered(String dataSetId, Collection<String> columns,
+		FilterExpression expression) throws NotFoundException, UnsupportedOperationException {
+		return getDataSetDataFiltered(dataSetId, columns, expression.toFilters());
+	}
+
+	/**
+	 * Sets up an {@link AggregationQuery} aggregating the indicators of the
+	 * data set with the given ID on the server. Only the aggregated values of
+	 * each group are sent back, instead of the data set's rows.
+	 * 
+	 * @param dataSetId ID of the data set to aggregate
+	 * @return a query to aggregate the data set
+	 */
+	AggregationQuery setupAggregationQuery(String dataSetId);
+
 	/**
 	 * Posts a row to the data set with the given ID. If the row has "id" then existing row with this
 	 * identification will be updated. Otherwise, new row will be added.
 	 * 
+	 * Each call sends a separate request. To post many rows one by one, use a
+	 * {@link com.belladati.sdk.dataset.data.DataRowBatcher}.
+	 * 
 	 * @param dataSetId ID of the data set to which to post a row
 	 * @param row data row to post
 	 * @throws NotFoundException if the ID wasn't found
@@ -481,6 +645,30 @@ public interface BellaDatiService extends Serializable {
 	 */
 	void replaceDataSetData(String dataSetId, Collection<DataRow> rows, Filter<?>... filters) throws NotFoundException;
 
+	/**
+	 * Deletes data matching the given filter expression from a data set and
+	 * then inserts new rows. The expression is
+	 * {@link FilterExpression#optimize() optimized} and sent to the server in
+	 * a single request.
+	 * <p>
+	 * The server only accepts expressions that optimize to a conjunction of
+	 * filters on distinct attributes. Other expressions, such as OR across
+	 * different attributes, are rejected; they can only be evaluated on the
+	 * client using {@link FilterExpression#toPredicate()}.
+	 * 
+	 * @param dataSetId ID of the data set
+	 * @param rows the rows to insert
+	 * @param expression the filter expression selecting the data to delete
+	 * @throws NotFoundException if the ID wasn't found
+	 * @throws UnsupportedOperationException if the expression cannot be sent
+	 *             to the server
+	 * @see FilterExpression#toFilters()
+	 */
+	default void replaceDataSetData(String dataSetId, Collection<DataRow> rows, FilterExpression expression)
+		throws NotFoundException, UnsupportedOperationException {
+		replaceDataSetData(dataSetId, rows, expression.toFilters());
+	}
+
 	/**
 	 * Deletes data from a data set based on given filter.
 	 * @param dataSetId
@@ -489,10 +677,39 @@ public interface BellaDatiService extends Serializable {
 	 */
 	void deleteDataSetData(String dataSetId, Filter<?>... filters) throws NotFoundException;
 
+	/**
+	 * Deletes data matching the given filter expression from a data set. The
+	 * expression is {@link FilterExpression#optimize() optimized} and sent to
+	 * the server in a single request.
+	 * <p>
+	 * The server only accepts expressions that optimize to a conjunction of
+	 * filters on distinct attributes. Other expressions, such as OR across
+	 * different attributes, are rejected; they can only be evaluated on the
+	 * client using {@link FilterExpression#toPredicate()}.
+	 * 
+	 * @param dataSetId ID of the data set
+	 * @param expression the filter expression selecting the data to delete
+	 * @throws NotFoundException if the ID wasn't found
+	 * @throws UnsupportedOperationException if the expression cannot be sent
+	 *             to the server
+	 * @see FilterExpression#toFilters()
+	 */
+	default void deleteDataSetData(String dataSetId, FilterExpression expression)
+		throws NotFoundException, UnsupportedOperationException {
+		deleteDataSetData(dataSetId, expression.toFilters());
+	}
+
 	/**
 	 * Uploads the given data into this data set. This method doesn't perform
 	 * any validation of the data; the caller should ensure it matches the data
 	 * set's structure.
+	 * <p>
+	 * Implementations should send the table using
+	 * {@link DataTable#writeJson(java.io.OutputStream)}, which streams rows to
+	 * the server without first building the entire request in memory.
+	 * <p>
+	 * Very large tables can be uploaded in multiple parallel parts using a
+	 * {@link com.belladati.sdk.dataset.data.DataTableUploader}.
 	 * 
 	 * @param id ID of the data set to upload to
 	 * @param data the data to upload
@@ -722,4 +939,182 @@ public interface BellaDatiService extends Serializable {
 	 */
 	JsonNode loadJson(String uri);
 
+	/**
+	 * Loads the reports with the given IDs in parallel, loading up to
+	 * {@link BulkResult#DEFAULT_PARALLELISM} reports at the same time.
+	 * <p>
+	 * Reports that cannot be loaded don't affect the others; their exceptions
+	 * are available from {@link BulkResult#getErrors()}.
+	 * 
+	 * @param ids IDs of the reports to load
+	 * @return the loaded reports and the errors of failed loads, by ID
+	 * @see #loadReport(String)
+	 */
+	default BulkResult<Report> loadReports(Collection<String> ids) {
+		return loadReports(ids, BulkResult.DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * Loads the reports with the given IDs in parallel, loading up to the
+	 * given number of reports at the same time.
+	 * 
+	 * @param ids IDs of the reports to load
+	 * @param parallelism maximum number of reports loaded at the same time
+	 * @return the loaded reports and the errors of failed loads, by ID
+	 * @see #loadReport(String)
+	 */
+	default BulkResult<Report> loadReports(Collection<String> ids, int parallelism) {
+		return loadInParallel(ids, this::loadReport, parallelism);
+	}
+
+	/**
+	 * Loads the data sets with the given IDs in parallel, loading up to
+	 * {@link BulkResult#DEFAULT_PARALLELISM} data sets at the same time.
+	 * <p>
+	 * Data sets that cannot be loaded don't affect the others; their
+	 * exceptions are available from {@link BulkResult#getErrors()}.
+	 * 
+	 * @param ids IDs of the data sets to load
+	 * @return the loaded data sets and the errors of failed loads, by ID
+	 * @see #loadDataSet(String)
+	 */
+	default BulkResult<DataSet> loadDataSets(Collection<String> ids) {
+		return loadDataSets(ids, BulkResult.DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * Loads the data sets with the given IDs in parallel, loading up to the
+	 * given number of data sets at the same time.
+	 * 
+	 * @param ids IDs of the data sets to load
+	 * @param parallelism maximum number of data sets loaded at the same time
+	 * @return the loaded data sets and the errors of failed loads, by ID
+	 * @see #loadDataSet(String)
+	 */
+	default BulkResult<DataSet> loadDataSets(Collection<String> ids, int parallelism) {
+		return loadInParallel(ids, this::loadDataSet, parallelism);
+	}
+
+	/**
+	 * Loads the dashboards with the given IDs in parallel, loading up to
+	 * {@link BulkResult#DEFAULT_PARALLELISM} dashboards at the same time.
+	 * <p>
+	 * Dashboards that cannot be loaded don't affect the others; their
+	 * exceptions are available from {@link BulkResult#getErrors()}.
+	 * 
+	 * @param ids IDs of the dashboards to load
+	 * @return the loaded dashboards and the errors of failed loads, by ID
+	 * @see #loadDashboard(String)
+	 */
+	default BulkResult<Dashboard> loadDashboards(Collection<String> ids) {
+		return loadDashboards(ids, BulkResult.DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * Loads the dashboards with the given IDs in parallel, loading up to the
+	 * given number of dashboards at the same time.
+	 * 
+	 * @param ids IDs of the dashboards to load
+	 * @param parallelism maximum number of dashboards loaded at the same time
+	 * @return the loaded dashboards and the errors of failed loads, by ID
+	 * @see #loadDashboard(String)
+	 */
+	default BulkResult<Dashboard> loadDashboards(Collection<String> ids, int parallelism) {
+		return loadInParallel(ids, this::loadDashboard, parallelism);
+	}
+
+	/**
+	 * Loads the content of the given views in parallel, loading up to
+	 * {@link BulkResult#DEFAULT_PARALLELISM} views at the same time. The same
+	 * filters are applied to each view.
+	 * 
+	 * @param views types of the views to load, by view ID
+	 * @param filters filters to use when loading the views
+	 * @return the view contents and the errors of failed loads, by view ID
+	 * @see #loadViewContent(String, ViewType, Collection)
+	 */
+	default BulkResult<Object> loadViewContents(Map<String, ViewType> views, Collection<Filter<?>> filters) {
+		return loadViewContents(views, filters, BulkResult.DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * Loads the content of the given views in parallel, loading up to the
+	 * given number of views at the same time. The same filters are applied to
+	 * each view.
+	 * 
+	 * @param views types of the views to load, by view ID
+	 * @param filters filters to use when loading the views
+	 * @param parallelism maximum number of views loaded at the same time
+	 * @return the view contents and the errors of failed loads, by view ID
+	 * @see #loadViewContent(String, ViewType, Collection)
+	 */
+	default BulkResult<Object> loadViewContents(Map<String, ViewType> views, Collection<Filter<?>> filters, int parallelism) {
+		return loadInParallel(views.keySet(), id -> loadViewContent(id, views.get(id), filters), parallelism);
+	}
+
+	/**
+	 * Loads the details of all given resources in parallel, loading up to the
+	 * given number of resources at the same time. Use this to load the
+	 * resources of a {@link PaginatedIdList} without loading them one by one.
+	 * 
+	 * @param infos resources whose details to load
+	 * @param parallelism maximum number of resources loaded at the same time
+	 * @return the loaded resources and the errors of failed loads, by ID
+	 * @see ResourceInfo#loadDetails()
+	 */
+	default <T extends Resource> BulkResult<T> loadDetails(Iterable<? extends ResourceInfo<T>> infos, int parallelism) {
+		Map<String, ResourceInfo<T>> byId = new LinkedHashMap<String, ResourceInfo<T>>();
+		for (ResourceInfo<T> info : infos) {
+			byId.putIfAbsent(info.getId(), info);
+		}
+		return loadInParallel(byId.keySet(), id -> byId.get(id).loadDetails(), parallelism);
+	}
+
+	/**
+	 * Runs the given loader for each ID on the threads of this service's
+	 * {@link ExecutionPolicy}. The tasks don't hold request permits; each
+	 * request waits for a permit itself, so a parallelism above the policy's
+	 * request limit only makes requests wait their turn.
+	 */
+	private <T> BulkResult<T> loadInParallel(Collection<String> ids, Function<String, T> loader, int parallelism) {
+		return BulkResult.load(ids, loader, parallelism, getExecutionPolicy().getExecutor());
+	}
+
+	/**
+	 * Returns an asynchronous view of this service. Every call made through
+	 * the returned instance runs the corresponding method of this service on
+	 * the given executor and returns a {@link java.util.concurrent.CompletableFuture}.
+	 * <p>
+	 * Since the calls are blocking I/O, the executor should be able to run
+	 * many tasks at once, e.g. a thread pool sized for the expected number of
+	 * concurrent requests.
+	 * 
+	 * @param executor executor running the blocking calls
+	 * @return an asynchronous view of this service
+	 */
+	default AsyncBellaDatiService async(Executor executor) {
+		return new DelegatingAsyncService(this, executor);
+	}
+
+	/**
+	 * Returns an asynchronous view of this service, running calls on the
+	 * executor of this service's {@link ExecutionPolicy}.
+	 * 
+	 * @return an asynchronous view of this service
+	 */
+	default AsyncBellaDatiService async() {
+		return async(getExecutionPolicy().getExecutor());
+	}
+
+	/**
+	 * Returns the policy determining how blocking calls of this service are
+	 * scheduled. This is the policy of the connection the service was obtained
+	 * from.
+	 * 
+	 * @return the execution policy of this service
+	 */
+	default ExecutionPolicy getExecutionPolicy() {
+		return ExecutionPolicy.platformThreads();
+	}
+
 }
@@ -0,0 +1,33 @@
+package com.belladati.sdk;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Default {@link AsyncBellaDatiService} submitting calls to a blocking
+ * {@link BellaDatiService} on a given executor.
+ * 
+ * 
+ */
+final class DelegatingAsyncService implements AsyncBellaDatiService {
+
+	private final BellaDatiService service;
+	private final Executor executor;
+
+	DelegatingAsyncService(BellaDatiService service, Executor executor) {
+		if (service == null || executor == null) {
+			throw new IllegalArgumentException("Service and executor may not be null");
+		}
+		this.service = service;
+		this.executor = executor;
+	}
+
+	@Override
+	public BellaDatiService getService() {
+		return service;
+	}
+
+	@Override
+	public Executor getExecutor() {
+		return executor;
+	}
+}
@@ -0,0 +1,232 @@
+package com.belladati.sdk;
+
+import java.io.Serializable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Determines how the SDK schedules blocking server calls. A policy selects the
+ * kind of threads running asynchronous calls and optionally limits the number
+ * of requests that may be in progress at the same time.
+ * <p>
+ * Pass a policy to {@link BellaDati#connect(String, ExecutionPolicy)} to apply
+ * it to all services obtained from the connection. The policy's executor is
+ * used by {@link BellaDatiService#async()} and can be passed to
+ * {@link com.belladati.sdk.util.PaginatedList#loadNextAsync(Executor)} and
+ * {@link com.belladati.sdk.util.CachedList#loadAsync(Executor)}.
+ * <p>
+ * The request limit is enforced around each request, using
+ * {@link #withPermit(Supplier)}, not around the tasks running on the
+ * executor. Tasks making several requests, or waiting for other tasks, never
+ * hold a permit they don't use.
+ * <p>
+ * With {@link #virtualThreads(int)}, tens of thousands of calls can be
+ * submitted at once: each waits cheaply on its own virtual thread until one of
+ * the permits becomes available, so neither platform threads nor the server
+ * are exhausted.
+ * 
+ * 
+ */
+public final class ExecutionPolicy implements Serializable {
+
+	/** The serialVersionUID */
+	private static final long serialVersionUID = 2650853532931244615L;
+
+	/** default policy, shared to avoid creating multiple thread pools */
+	private static final ExecutionPolicy PLATFORM_THREADS = new ExecutionPolicy(false, 0);
+
+	private final boolean virtualThreads;
+	private final int maxConcurrentRequests;
+
+	private final transient Semaphore permits;
+	private final transient Executor executor;
+
+	/** number of permits held by the current thread, to make permits reentrant */
+	private final transient ThreadLocal<int[]> holds;
+
+	/**
+	 * Returns the default policy, running asynchronous calls on a shared pool
+	 * of daemon platform threads without limiting concurrent requests.
+	 * 
+	 * @return the default policy
+	 */
+	public static ExecutionPolicy platformThreads() {
+		return PLATFORM_THREADS;
+	}
+
+	/**
+	 * Returns a policy running asynchronous calls on a shared pool of daemon
+	 * platform threads, allowing at most the given number of concurrent
+	 * requests.
+	 * <p>
+	 * Calls waiting for a permit occupy a platform thread. When submitting
+	 * large numbers of calls, prefer {@link #virtualThreads(int)}.
+	 * 
+	 * @param maxConcurrentRequests maximum number of requests in progress at
+	 *            the same time
+	 * @return a policy using platform threads
+	 * @throws IllegalArgumentException if maxConcurrentRequests &lt;= 0
+	 */
+	public static ExecutionPolicy platformThreads(int maxConcurrentRequests) throws IllegalArgumentException {
+		return new ExecutionPolicy(false, checkLimit(maxConcurrentRequests));
+	}
+
+	/**
+	 * Returns a policy running each asynchronous call on its own virtual
+	 * thread, without limiting concurrent requests.
+	 * 
+	 * @return a policy using virtual threads
+	 */
+	public static ExecutionPolicy virtualThreads() {
+		return new ExecutionPolicy(true, 0);
+	}
+
+	/**
+	 * Returns a policy running each asynchronous call on its own virtual
+	 * thread, allowing at most the given number of concurrent requests.
+	 * 
+	 * @param maxConcurrentRequests maximum number of requests in progress at
+	 *            the same time
+	 * @return a policy using virtual threads
+	 * @throws IllegalArgumentException if maxConcurrentRequests &lt;= 0
+	 */
+	public static ExecutionPolicy virtualThreads(int maxConcurrentRequests) throws IllegalArgumentException {
+		return new ExecutionPolicy(true, checkLimit(maxConcurrentRequests));
+	}
+
+	private static int checkLimit(int maxConcurrentRequests) throws IllegalArgumentException {
+		if (maxConcurrentRequests <= 0) {
+			throw new IllegalArgumentException("Maximum concurrent requests must be positive, was " + maxConcurrentRequests);
+		}
+		return maxConcurrentRequests;
+	}
+
+	private ExecutionPolicy(boolean virtualThreads, int maxConcurrentRequests) {
+		this.virtualThreads = virtualThreads;
+		this.maxConcurrentRequests = maxConcurrentRequests;
+		this.permits = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests, true) : null;
+		this.holds = permits == null ? null : ThreadLocal.withInitial(() -> new int[1]);
+		this.executor = virtualThreads ? VirtualThreads.EXECUTOR : PlatformThreads.POOL;
+	}
+
+	/**
+	 * Returns true if asynchronous calls run on virtual threads.
+	 * 
+	 * @return true if asynchronous calls run on virtual threads
+	 */
+	public boolean usesVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * Returns the maximum number of requests in progress at the same time, or
+	 * 0 if the number isn't limited.
+	 * 
+	 * @return the maximum number of concurrent requests, or 0
+	 */
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	/**
+	 * Returns the executor running asynchronous calls. Tasks don't hold any of
+	 * this policy's permits while they run; each request made by a task waits
+	 * for a permit itself. Tasks may therefore make any number of service
+	 * calls, and waiting for each other's results doesn't use up permits.
+	 * 
+	 * @return the executor running asynchronous calls
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Runs the given blocking call on the current thread while holding one of
+	 * this policy's permits, waiting for a permit if necessary. Used by the SDK
+	 * implementation around each request to limit concurrent requests.
+	 * <p>
+	 * Permits are reentrant: if the current thread already holds a permit, the
+	 * call runs without taking another one, so a request made while holding a
+	 * permit cannot wait for itself.
+	 * 
+	 * @param <T> type of the call's result
+	 * @param call the blocking call to run
+	 * @return the call's result
+	 */
+	public <T> T withPermit(Supplier<T> call) {
+		if (permits == null) {
+			return call.get();
+		}
+		int[] held = holds.get();
+		if (held[0] == 0) {
+			permits.acquireUninterruptibly();
+		}
+		held[0]++;
+		try {
+			return call.get();
+		} finally {
+			if (--held[0] == 0) {
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Runs the given blocking call on the current thread while holding one of
+	 * this policy's permits, waiting for a permit if necessary. Like
+	 * {@link #withPermit(Supplier)}, permits are reentrant.
+	 * 
+	 * @param call the blocking call to run
+	 */
+	public void runWithPermit(Runnable call) {
+		withPermit(() -> {
+			call.run();
+			return null;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionPolicy [virtualThreads=" + virtualThreads + ", maxConcurrentRequests=" + maxConcurrentRequests + "]";
+	}
+
+	/**
+	 * Recreates the transient permits after deserialization.
+	 * 
+	 * @return a policy with the same settings
+	 */
+	private Object readResolve() {
+		if (!virtualThreads && maxConcurrentRequests == 0) {
+			return PLATFORM_THREADS;
+		}
+		return new ExecutionPolicy(virtualThreads, maxConcurrentRequests);
+	}
+
+	/**
+	 * Holds the shared platform thread pool. Threads are only created when
+	 * tasks are submitted.
+	 * 
+	 * 
+	 */
+	private static class PlatformThreads {
+		private static final ExecutorService POOL = Executors.newCachedThreadPool(daemonFactory());
+
+		private static ThreadFactory daemonFactory() {
+			return Thread.ofPlatform().name("belladati-sdk-", 0).daemon(true).factory();
+		}
+	}
+
+	/**
+	 * Holds the virtual thread executor, created on first use.
+	 * 
+	 * 
+	 */
+	private static class VirtualThreads {
+		private static final ThreadFactory FACTORY = Thread.ofVirtual().name("belladati-sdk-virtual-", 0).factory();
+		private static final Executor EXECUTOR = task -> FACTORY.newThread(task).start();
+	}
+}
@@ -0,0 +1,171 @@
+package com.belladati.sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.belladati.sdk.dashboard.Dashboard;
+import com.belladati.sdk.dataset.AttributeValue;
+import com.belladati.sdk.dataset.DataSet;
+import com.belladati.sdk.exception.server.NotFoundException;
+import com.belladati.sdk.filter.Filter;
+import com.belladati.sdk.report.Report;
+import com.belladati.sdk.util.CachedList;
+import com.belladati.sdk.util.SingleFlight;
+import com.belladati.sdk.view.ViewType;
+
+/**
+ * Shares server calls between threads making identical requests at the same
+ * time. When a request is made while an identical request is in progress, the
+ * caller waits for the running request and receives the same result instead
+ * of sending a request of its own.
+ * <p>
+ * Requests are identical if they call the same method with the same
+ * arguments; filters are compared by their {@link Filter#getKey() key},
+ * regardless of their order. Results are not cached: a request made after an
+ * identical one has completed is sent to the server again.
+ * <p>
+ * Results are shared by all waiting callers and must not be modified. Share
+ * one instance among all threads using the same service.
+ * 
+ * 
+ */
+public final class RequestCoalescer {
+
+	private final BellaDatiService service;
+	private final SingleFlight<List<Object>, Object> calls = new SingleFlight<List<Object>, Object>();
+
+	/**
+	 * Creates a coalescer sending requests through the given service.
+	 * 
+	 * @param service service used to send requests
+	 */
+	public RequestCoalescer(BellaDatiService service) {
+		this.service = service;
+	}
+
+	/**
+	 * Returns the service used to send requests.
+	 * 
+	 * @return the service used to send requests
+	 */
+	public BellaDatiService getService() {
+		return service;
+	}
+
+	/**
+	 * Loads the report with the specified ID, sharing the request with
+	 * concurrent identical requests.
+	 * 
+	 * @param id ID of the report to load
+	 * @return the report with the specified ID
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see BellaDatiService#loadReport(String)
+	 */
+	public Report loadReport(String id) throws NotFoundException {
+		return (Report) calls.execute(Arrays.<Object> asList("report", id), () -> service.loadReport(id));
+	}
+
+	/**
+	 * Loads the data set with the specified ID, sharing the request with
+	 * concurrent identical requests.
+	 * 
+	 * @param id ID of the data set to load
+	 * @return the data set with the specified ID
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see BellaDatiService#loadDataSet(String)
+	 */
+	public DataSet loadDataSet(String id) throws NotFoundException {
+		return (DataSet) calls.execute(Arrays.<Object> asList("dataSet", id), () -> service.loadDataSet(id));
+	}
+
+	/**
+	 * Loads the dashboard with the specified ID, sharing the request with
+	 * concurrent identical requests.
+	 * 
+	 * @param id ID of the dashboard to load
+	 * @return the dashboard with the specified ID
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see BellaDatiService#loadDashboard(String)
+	 */
+	public Dashboard loadDashboard(String id) throws NotFoundException {
+		return (Dashboard) calls.execute(Arrays.<Object> asList("dashboard", id), () -> service.loadDashboard(id));
+	}
+
+	/**
+	 * Loads the values of the given attribute, sharing the request with
+	 * concurrent identical requests. The returned list has been loaded.
+	 * 
+	 * @param dataSetId ID of the data set containing the attribute
+	 * @param attributeCode code of the attribute
+	 * @return the loaded list of attribute values
+	 * @throws NotFoundException if the ID or code wasn't found
+	 * @see BellaDatiService#getAttributeValues(String, String)
+	 */
+	@SuppressWarnings("unchecked")
+	public CachedList<AttributeValue> getAttributeValues(String dataSetId, String attributeCode) throws NotFoundException {
+		return (CachedList<AttributeValue>) calls.execute(Arrays.<Object> asList("attributeValues", dataSetId, attributeCode),
+			() -> service.getAttributeValues(dataSetId, attributeCode).load());
+	}
+
+	/**
+	 * Loads the content of the view with the given ID and type, sharing the
+	 * request with concurrent identical requests.
+	 * 
+	 * @param viewId ID of the view to load
+	 * @param viewType type of the view to load
+	 * @param filters optional filters to use when loading the view
+	 * @return the content of the view
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see BellaDatiService#loadViewContent(String, ViewType, Filter...)
+	 */
+	public Object loadViewContent(String viewId, ViewType viewType, Filter<?>... filters) throws NotFoundException {
+		return loadViewContent(viewId, viewType, Arrays.asList(filters));
+	}
+
+	/**
+	 * Loads the content of the view with the given ID and type, sharing the
+	 * request with concurrent identical requests.
+	 * 
+	 * @param viewId ID of the view to load
+	 * @param viewType type of the view to load
+	 * @param filters filters to use when loading the view
+	 * @return the content of the view
+	 * @throws NotFoundException if the ID wasn't found
+	 * @see BellaDatiService#loadViewContent(String, ViewType, Collection)
+	 */
+	public Object loadViewContent(String viewId, ViewType viewType, Collection<Filter<?>> filters) throws NotFoundException {
+		List<Object> key = new ArrayList<Object>(filters.size() + 3);
+		key.add("view");
+		key.add(viewId);
+		key.add(viewType);
+		key.addAll(filterKeys(filters));
+		return calls.execute(key, () -> service.loadViewContent(viewId, viewType, filters));
+	}
+
+	/**
+	 * Returns the number of requests currently in progress.
+	 * 
+	 * @return the number of requests currently in progress
+	 */
+	public int getRequestsInProgress() {
+		return calls.getCallsInProgress();
+	}
+
+	/**
+	 * Returns the keys of the given filters in a canonical order.
+	 * 
+	 * @param filters the filters
+	 * @return the sorted filter keys
+	 */
+	private static List<String> filterKeys(Collection<Filter<?>> filters) {
+		List<String> keys = new ArrayList<String>(filters.size());
+		for (Filter<?> filter : filters) {
+			keys.add(filter.getKey());
+		}
+		Collections.sort(keys);
+		return keys;
+	}
+}
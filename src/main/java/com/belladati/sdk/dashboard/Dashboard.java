@@ -3,6 +3,7 @@ package com.belladati.sdk.dashboard;
 import java.util.Date;
 import java.util.List;
 
+import com.belladati.sdk.util.CacheValidator;
 import com.belladati.sdk.util.Resource;
 
 /**
@@ -21,6 +22,17 @@ public interface Dashboard extends Resource {
 	 */
 	Date getLastChange();
 
+	/**
+	 * Returns a validator identifying this version of the dashboard, used to
+	 * ask the server whether the dashboard has changed since it was loaded.
+	 * Implementations may include the entity tag sent by the server.
+	 * 
+	 * @return a validator identifying this version of the dashboard
+	 */
+	default CacheValidator getCacheValidator() {
+		return CacheValidator.fromLastChange(getLastChange());
+	}
+
 	/**
 	 * Returns a list of dashlets in this dashboard.
 	 * 
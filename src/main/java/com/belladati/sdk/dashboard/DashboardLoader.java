@@ -0,0 +1,444 @@
+package com.belladati.sdk.dashboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import com.belladati.sdk.ExecutionPolicy;
+import com.belladati.sdk.filter.Filter;
+import com.belladati.sdk.intervals.DateUnit;
+import com.belladati.sdk.intervals.Interval;
+import com.belladati.sdk.intervals.TimeUnit;
+import com.belladati.sdk.util.BulkResult;
+import com.belladati.sdk.view.View;
+import com.belladati.sdk.view.ViewLoader;
+
+/**
+ * Loads the contents of all views in a {@link Dashboard} at the same time.
+ * Every dashlet of type {@link Dashlet.Type#VIEW} is loaded with the same
+ * filters, intervals and locale, and each dashlet is reported to the
+ * {@link DashletListener} as soon as its content is available, so it can be
+ * displayed without waiting for the others.
+ * <p>
+ * Intervals are only set on views that support them. Call {@link #start()}
+ * to begin loading; the returned {@link Loading} can be used to wait for or
+ * cancel the remaining dashlets. Settings changed after starting don't affect
+ * loading already in progress.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * 
+ */
+public final class DashboardLoader {
+
+	private final Dashboard dashboard;
+	private final List<Filter<?>> filters = new ArrayList<Filter<?>>();
+	private Interval<DateUnit> dateInterval;
+	private Interval<TimeUnit> timeInterval;
+	private Locale locale;
+	private int parallelism = BulkResult.DEFAULT_PARALLELISM;
+	private Executor executor;
+	private DashletListener listener;
+
+	/**
+	 * Creates a loader for the views in the given dashboard.
+	 * 
+	 * @param dashboard the dashboard whose views to load
+	 */
+	public DashboardLoader(Dashboard dashboard) {
+		this.dashboard = dashboard;
+	}
+
+	/**
+	 * Returns the dashboard whose views are loaded.
+	 * 
+	 * @return the dashboard whose views are loaded
+	 */
+	public Dashboard getDashboard() {
+		return dashboard;
+	}
+
+	/**
+	 * Adds filters applied to every view. The filters are added to any other
+	 * filters already defined on this loader.
+	 * 
+	 * @param filters the filters to add
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader addFilters(Filter<?>... filters) {
+		return addFilters(Arrays.asList(filters));
+	}
+
+	/**
+	 * Adds filters applied to every view. The filters are added to any other
+	 * filters already defined on this loader.
+	 * 
+	 * @param filters the filters to add
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader addFilters(Collection<Filter<?>> filters) {
+		this.filters.addAll(filters);
+		return this;
+	}
+
+	/**
+	 * Sets a date interval to use with all views supporting date intervals.
+	 * 
+	 * @param dateInterval the interval to set, or null to use each view's
+	 *            default
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader setDateInterval(Interval<DateUnit> dateInterval) {
+		this.dateInterval = dateInterval;
+		return this;
+	}
+
+	/**
+	 * Sets a time interval to use with all views supporting time intervals.
+	 * 
+	 * @param timeInterval the interval to set, or null to use each view's
+	 *            default
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader setTimeInterval(Interval<TimeUnit> timeInterval) {
+		this.timeInterval = timeInterval;
+		return this;
+	}
+
+	/**
+	 * Sets the language in which to load the views.
+	 * 
+	 * @param locale locale for which to load the views, or null for the
+	 *            default
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader setLocale(Locale locale) {
+		this.locale = locale;
+		return this;
+	}
+
+	/**
+	 * Sets the number of views loaded at the same time. Defaults to
+	 * {@link BulkResult#DEFAULT_PARALLELISM}.
+	 * 
+	 * @param parallelism number of views loaded at the same time
+	 * @return this loader, to allow chaining
+	 * @throws IllegalArgumentException if parallelism &lt;= 0
+	 */
+	public DashboardLoader setParallelism(int parallelism) throws IllegalArgumentException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the executor loading the views. Defaults to the executor of
+	 * {@link ExecutionPolicy#platformThreads()}; pass the executor of the
+	 * service's {@link ExecutionPolicy} to load on its threads, such as
+	 * virtual threads. Requests respect the policy's limit on any executor.
+	 * 
+	 * @param executor executor loading the views
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets a listener notified as each view has been loaded.
+	 * 
+	 * @param listener listener to notify, or null
+	 * @return this loader, to allow chaining
+	 */
+	public DashboardLoader setListener(DashletListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Starts loading the views of the dashboard in the background.
+	 * 
+	 * @return the loading in progress
+	 */
+	public Loading start() {
+		List<Dashlet> dashlets = new ArrayList<Dashlet>();
+		for (Dashlet dashlet : dashboard.getDashlets()) {
+			if (dashlet.getType() == Dashlet.Type.VIEW && dashlet.getContent() instanceof View) {
+				dashlets.add(dashlet);
+			}
+		}
+		List<Filter<?>> filters = new ArrayList<Filter<?>>(this.filters);
+		Interval<DateUnit> dateInterval = this.dateInterval;
+		Interval<TimeUnit> timeInterval = this.timeInterval;
+		Locale locale = this.locale;
+		Function<View, Object> contentLoader = view -> {
+			ViewLoader loader = view.createLoader().addFilters(filters);
+			if (dateInterval != null && view.isDateIntervalSupported()) {
+				loader.setDateInterval(dateInterval);
+			}
+			if (timeInterval != null && view.isTimeIntervalSupported()) {
+				loader.setTimeInterval(timeInterval);
+			}
+			if (locale != null) {
+				loader.setLocale(locale);
+			}
+			return loader.loadContent();
+		};
+		Loading loading = new Loading(dashlets, contentLoader, listener);
+		loading.start(executor != null ? executor : ExecutionPolicy.platformThreads().getExecutor(), parallelism);
+		return loading;
+	}
+
+	/**
+	 * Receives the content of each dashlet as soon as it has been loaded.
+	 * Methods are called from the threads loading the views, possibly from
+	 * several threads at the same time, and aren't called for dashlets
+	 * completing after loading has been cancelled.
+	 * 
+	 * 
+	 */
+	@FunctionalInterface
+	public interface DashletListener {
+
+		/**
+		 * Called when the content of a dashlet has been loaded. An exception
+		 * thrown by this method is treated as a failure to load the dashlet.
+		 * 
+		 * @param dashlet the dashlet that was loaded
+		 * @param content the content of the dashlet's view
+		 */
+		void contentLoaded(Dashlet dashlet, Object content);
+
+		/**
+		 * Called when the content of a dashlet couldn't be loaded. Exceptions
+		 * thrown by this method are ignored. Does nothing by default.
+		 * 
+		 * @param dashlet the dashlet that failed to load
+		 * @param error the exception thrown while loading
+		 */
+		default void contentFailed(Dashlet dashlet, Throwable error) {}
+	}
+
+	/**
+	 * The loading of a dashboard's views in progress.
+	 * 
+	 * 
+	 */
+	public static final class Loading {
+
+		private final List<Dashlet> dashlets;
+		private final Function<View, Object> contentLoader;
+		private final DashletListener listener;
+
+		private final AtomicReferenceArray<Object> contents;
+		private final AtomicReferenceArray<Throwable> errors;
+		private final AtomicInteger next = new AtomicInteger();
+		private final AtomicInteger remaining;
+		private final CountDownLatch finished = new CountDownLatch(1);
+		private final List<FutureTask<Void>> workers = new ArrayList<FutureTask<Void>>();
+		private volatile boolean cancelled;
+
+		private Loading(List<Dashlet> dashlets, Function<View, Object> contentLoader, DashletListener listener) {
+			this.dashlets = Collections.unmodifiableList(dashlets);
+			this.contentLoader = contentLoader;
+			this.listener = listener;
+			this.contents = new AtomicReferenceArray<Object>(dashlets.size());
+			this.errors = new AtomicReferenceArray<Throwable>(dashlets.size());
+			this.remaining = new AtomicInteger(dashlets.size());
+			if (dashlets.isEmpty()) {
+				finished.countDown();
+			}
+		}
+
+		/**
+		 * Starts the workers, each taking the next dashlet until none are left.
+		 */
+		private void start(Executor executor, int parallelism) {
+			int count = Math.min(parallelism, dashlets.size());
+			synchronized (workers) {
+				for (int i = 0; i < count; i++) {
+					workers.add(new FutureTask<Void>(this::work, null));
+				}
+			}
+			int started = 0;
+			for (FutureTask<Void> worker : workers) {
+				try {
+					executor.execute(worker);
+					started++;
+				} catch (RejectedExecutionException e) {
+					// workers already started take over the remaining dashlets
+					if (started == 0) {
+						failRemaining(e);
+					}
+					break;
+				}
+			}
+		}
+
+		private void work() {
+			int index;
+			while (!cancelled && (index = next.getAndIncrement()) < dashlets.size()) {
+				Dashlet dashlet = dashlets.get(index);
+				try {
+					Object content = contentLoader.apply((View) dashlet.getContent());
+					if (!cancelled) {
+						contents.set(index, content);
+						if (listener != null) {
+							listener.contentLoaded(dashlet, content);
+						}
+					}
+				} catch (Throwable t) {
+					if (!cancelled) {
+						contents.set(index, null);
+						errors.set(index, t);
+						notifyFailed(dashlet, t);
+					}
+				} finally {
+					completed();
+				}
+			}
+		}
+
+		private void notifyFailed(Dashlet dashlet, Throwable error) {
+			if (listener != null) {
+				try {
+					listener.contentFailed(dashlet, error);
+				} catch (RuntimeException e) {
+					// keep loading the remaining dashlets
+				}
+			}
+		}
+
+		private void failRemaining(RejectedExecutionException e) {
+			int index;
+			while ((index = next.getAndIncrement()) < dashlets.size()) {
+				errors.set(index, e);
+				completed();
+			}
+		}
+
+		private void completed() {
+			if (remaining.decrementAndGet() == 0) {
+				finished.countDown();
+			}
+		}
+
+		/**
+		 * Returns the dashlets being loaded, in the order they appear in the
+		 * dashboard. Only dashlets containing views are loaded.
+		 * 
+		 * @return the dashlets being loaded
+		 */
+		public List<Dashlet> getDashlets() {
+			return dashlets;
+		}
+
+		/**
+		 * Stops loading. Dashlets not yet started aren't loaded, views being
+		 * loaded are interrupted, and the listener isn't called for any
+		 * further dashlets. Contents loaded before remain available.
+		 */
+		public void cancel() {
+			cancelled = true;
+			synchronized (workers) {
+				for (FutureTask<Void> worker : workers) {
+					worker.cancel(true);
+				}
+			}
+			finished.countDown();
+		}
+
+		/**
+		 * Returns true if loading has been cancelled.
+		 * 
+		 * @return true if loading has been cancelled
+		 */
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		/**
+		 * Returns true if all dashlets have been loaded or failed, or loading
+		 * has been cancelled.
+		 * 
+		 * @return true if loading has ended
+		 */
+		public boolean isDone() {
+			return finished.getCount() == 0;
+		}
+
+		/**
+		 * Waits until all dashlets have been loaded or failed, or loading has
+		 * been cancelled.
+		 * 
+		 * @return the contents of all dashlets loaded successfully
+		 * @throws InterruptedException if interrupted while waiting
+		 */
+		public Map<Dashlet, Object> await() throws InterruptedException {
+			finished.await();
+			return getContents();
+		}
+
+		/**
+		 * Waits until all dashlets have been loaded or failed, or loading has
+		 * been cancelled, or the timeout has elapsed.
+		 * 
+		 * @param timeout maximum time to wait
+		 * @param unit unit of the timeout
+		 * @return true if loading has ended, false if the timeout elapsed
+		 * @throws InterruptedException if interrupted while waiting
+		 */
+		public boolean await(long timeout, java.util.concurrent.TimeUnit unit) throws InterruptedException {
+			return finished.await(timeout, unit);
+		}
+
+		/**
+		 * Returns the contents of all dashlets loaded successfully so far, in
+		 * the order they appear in the dashboard.
+		 * 
+		 * @return the contents of the loaded dashlets
+		 */
+		public Map<Dashlet, Object> getContents() {
+			Map<Dashlet, Object> result = new LinkedHashMap<Dashlet, Object>();
+			for (int i = 0; i < contents.length(); i++) {
+				Object content = contents.get(i);
+				if (content != null) {
+					result.put(dashlets.get(i), content);
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the exceptions of all dashlets that failed to load so far, in
+		 * the order they appear in the dashboard.
+		 * 
+		 * @return the exceptions of the failed dashlets
+		 */
+		public Map<Dashlet, Throwable> getErrors() {
+			Map<Dashlet, Throwable> result = new LinkedHashMap<Dashlet, Throwable>();
+			for (int i = 0; i < errors.length(); i++) {
+				Throwable error = errors.get(i);
+				if (error != null) {
+					result.put(dashlets.get(i), error);
+				}
+			}
+			return result;
+		}
+	}
+}
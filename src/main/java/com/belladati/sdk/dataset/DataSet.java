@@ -9,6 +9,7 @@ import com.belladati.sdk.dataset.source.DataSource;
 import com.belladati.sdk.exception.dataset.data.NoColumnsException;
 import com.belladati.sdk.exception.dataset.data.UnknownServerColumnException;
 import com.belladati.sdk.report.ReportInfo;
+import com.belladati.sdk.util.CacheValidator;
 import com.belladati.sdk.util.CachedCollection;
 import com.belladati.sdk.util.CachedList;
 import com.belladati.sdk.util.Localizable;
@@ -45,6 +46,17 @@ public interface DataSet extends Resource, Localizable {
 	 */
 	Date getLastChange();
 
+	/**
+	 * Returns a validator identifying this version of the data set, used to
+	 * ask the server whether the data set has changed since it was loaded.
+	 * Implementations may include the entity tag sent by the server.
+	 * 
+	 * @return a validator identifying this version of the data set
+	 */
+	default CacheValidator getCacheValidator() {
+		return CacheValidator.fromLastChange(getLastChange());
+	}
+
 	/**
 	 * Returns a list of all attributes used in this data set.
 	 * 
@@ -112,6 +124,9 @@ public interface DataSet extends Resource, Localizable {
 	/**
 	 * Posts a row into this data set. If the row has "id" then existing row with this
 	 * identification will be updated. Otherwise, new row will be added.
+	 * <p>
+	 * Each call sends a separate request. To post many rows one by one, use a
+	 * {@link com.belladati.sdk.dataset.data.DataRowBatcher}.
 	 * 
 	 * @param row data row to post
 	 */
@@ -0,0 +1,69 @@
+package com.belladati.sdk.dataset.aggregation;
+
+/**
+ * An indicator combined with a function, forming one aggregated value per
+ * group of an {@link AggregationQuery}. Aggregations are immutable.
+ * 
+ * 
+ */
+public final class Aggregation {
+
+	private final String indicatorCode;
+	private final AggregationFunction function;
+
+	/**
+	 * Creates an aggregation of the indicator with the given code.
+	 * 
+	 * @param indicatorCode code of the indicator to aggregate
+	 * @param function function combining the indicator's values
+	 * @return an aggregation of the indicator
+	 */
+	public static Aggregation of(String indicatorCode, AggregationFunction function) {
+		return new Aggregation(indicatorCode, function);
+	}
+
+	private Aggregation(String indicatorCode, AggregationFunction function) {
+		if (indicatorCode == null || function == null) {
+			throw new NullPointerException("Indicator code and function are required");
+		}
+		this.indicatorCode = indicatorCode;
+		this.function = function;
+	}
+
+	/**
+	 * Returns the code of the aggregated indicator.
+	 * 
+	 * @return the code of the aggregated indicator
+	 */
+	public String getIndicatorCode() {
+		return indicatorCode;
+	}
+
+	/**
+	 * Returns the function combining the indicator's values.
+	 * 
+	 * @return the function combining the indicator's values
+	 */
+	public AggregationFunction getFunction() {
+		return function;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof Aggregation) {
+			Aggregation other = (Aggregation) obj;
+			return indicatorCode.equals(other.indicatorCode) && function == other.function;
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return indicatorCode.hashCode() * 31 + function.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return function + "(" + indicatorCode + ")";
+	}
+}
@@ -0,0 +1,20 @@
+package com.belladati.sdk.dataset.aggregation;
+
+/**
+ * Functions combining the values of an indicator within each group of an
+ * {@link AggregationQuery}.
+ * 
+ * 
+ */
+public enum AggregationFunction {
+	/** The sum of the indicator's values. */
+	SUM,
+	/** The number of rows with a value for the indicator. */
+	COUNT,
+	/** The average of the indicator's values. */
+	AVG,
+	/** The smallest of the indicator's values. */
+	MIN,
+	/** The largest of the indicator's values. */
+	MAX;
+}
@@ -0,0 +1,131 @@
+package com.belladati.sdk.dataset.aggregation;
+
+import java.util.Collection;
+
+import com.belladati.sdk.dataset.Attribute;
+import com.belladati.sdk.dataset.Indicator;
+import com.belladati.sdk.exception.server.NotFoundException;
+import com.belladati.sdk.filter.Filter;
+import com.belladati.sdk.intervals.DateUnit;
+import com.belladati.sdk.intervals.Interval;
+import com.belladati.sdk.intervals.TimeUnit;
+import com.belladati.sdk.util.IdElement;
+
+/**
+ * A query aggregating the indicators of a data set on the server. Rows are
+ * grouped by the members of the attributes to group by, and each aggregation
+ * combines an indicator's values within each group. Only the aggregated
+ * values are sent back, instead of the data set's rows.
+ * <p>
+ * Without attributes to group by, the query aggregates all matching rows into
+ * a single group. Filters and intervals restrict the rows being aggregated.
+ * 
+ * 
+ */
+public interface AggregationQuery extends IdElement {
+
+	/**
+	 * Returns the ID of the data set to aggregate.
+	 * 
+	 * @return the ID of the data set to aggregate
+	 */
+	String getId();
+
+	/**
+	 * Adds attributes to group by. The attributes are added to any other
+	 * attributes already set on this query; the result lists them in the
+	 * order they were added.
+	 * 
+	 * @param attributeCodes codes of the attributes to group by
+	 * @return this query
+	 */
+	AggregationQuery groupBy(String... attributeCodes);
+
+	/**
+	 * Adds attributes to group by. The attributes are added to any other
+	 * attributes already set on this query; the result lists them in the
+	 * order they were added.
+	 * 
+	 * @param attributes the attributes to group by
+	 * @return this query
+	 */
+	default AggregationQuery groupBy(Attribute... attributes) {
+		for (Attribute attribute : attributes) {
+			groupBy(attribute.getCode());
+		}
+		return this;
+	}
+
+	/**
+	 * Adds an aggregation of the indicator with the given code. The result
+	 * lists aggregations in the order they were added.
+	 * 
+	 * @param indicatorCode code of the indicator to aggregate
+	 * @param function function combining the indicator's values
+	 * @return this query
+	 */
+	AggregationQuery aggregate(String indicatorCode, AggregationFunction function);
+
+	/**
+	 * Adds an aggregation of the given indicator. The result lists
+	 * aggregations in the order they were added.
+	 * 
+	 * @param indicator the indicator to aggregate
+	 * @param function function combining the indicator's values
+	 * @return this query
+	 */
+	default AggregationQuery aggregate(Indicator indicator, AggregationFunction function) {
+		return aggregate(indicator.getCode(), function);
+	}
+
+	/**
+	 * Adds filters to this query. The filters are added to any other filters
+	 * already defined on this query.
+	 * 
+	 * @param filters the filters to add
+	 * @return this query
+	 */
+	AggregationQuery addFilters(Filter<?>... filters);
+
+	/**
+	 * Adds filters to this query. The filters are added to any other filters
+	 * already defined on this query.
+	 * 
+	 * @param filters the filters to add
+	 * @return this query
+	 */
+	AggregationQuery addFilters(Collection<Filter<?>> filters);
+
+	/**
+	 * Sets a date interval restricting the aggregated rows. Replaces any date
+	 * interval previously set on this query.
+	 * 
+	 * @param dateInterval the interval to set
+	 * @return this query
+	 */
+	AggregationQuery setDateInterval(Interval<DateUnit> dateInterval);
+
+	/**
+	 * Sets a time interval restricting the aggregated rows. Replaces any time
+	 * interval previously set on this query.
+	 * 
+	 * @param timeInterval the interval to set
+	 * @return this query
+	 */
+	AggregationQuery setTimeInterval(Interval<TimeUnit> timeInterval);
+
+	/**
+	 * Runs this query on the server using its current settings.
+	 * <p>
+	 * The request and response format is implementation-defined. An
+	 * implementation receiving aggregated rows in the format described in
+	 * {@link AggregationResult}, with the members of each group followed by
+	 * its aggregated values, can read them using
+	 * {@link AggregationResult#parse(java.util.List, java.util.List, java.io.InputStream)}.
+	 * 
+	 * @return the aggregated values of each group
+	 * @throws NotFoundException if the data set wasn't found
+	 * @throws IllegalStateException if no aggregation was added
+	 */
+	AggregationResult execute() throws NotFoundException, IllegalStateException;
+}
@@ -0,0 +1,337 @@
+package com.belladati.sdk.dataset.aggregation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.belladati.sdk.util.JsonSupport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The result of an {@link AggregationQuery}: one row per group, holding the
+ * members of the attributes grouped by and the aggregated values. Values are
+ * held in one primitive array per aggregation, and each distinct member text
+ * is held only once per attribute.
+ * <p>
+ * A result is read from a JSON array of rows, or the first array in a JSON
+ * object whose first element is an array; other fields are skipped. Each row is an array holding the group's members, in the order
+ * of the attributes grouped by, followed by the aggregated values, in the
+ * order of the aggregations. Missing and non-numeric values are read as
+ * {@link Double#NaN}. Results are immutable.
+ * 
+ * 
+ */
+public final class AggregationResult {
+
+	private final List<String> groupCodes;
+	private final List<Aggregation> aggregations;
+	private final int rowCount;
+	private final String[][] members;
+	private final double[][] values;
+
+	/**
+	 * Reads a result from a stream of aggregated rows, such as the response
+	 * to an aggregation request. The stream is not closed.
+	 * 
+	 * @param groupCodes codes of the attributes grouped by, in order
+	 * @param aggregations the aggregations, in order
+	 * @param in stream of aggregated rows
+	 * @return the result read from the stream
+	 * @throws IOException if the stream cannot be read or isn't valid JSON
+	 */
+	public static AggregationResult parse(List<String> groupCodes, List<Aggregation> aggregations, InputStream in)
+		throws IOException {
+		try (JsonParser parser = JsonSupport.createParser(in)) {
+			return parse(groupCodes, aggregations, parser);
+		}
+	}
+
+	/**
+	 * Reads a result from a parser positioned before or at the start of the
+	 * aggregated rows.
+	 * 
+	 * @param groupCodes codes of the attributes grouped by, in order
+	 * @param aggregations the aggregations, in order
+	 * @param parser parser reading aggregated rows
+	 * @return the result read from the parser
+	 * @throws IOException if the data cannot be read or isn't valid JSON
+	 */
+	public static AggregationResult parse(List<String> groupCodes, List<Aggregation> aggregations, JsonParser parser)
+		throws IOException {
+		Builder builder = new Builder(groupCodes.size(), aggregations.size());
+		JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+		if (token == JsonToken.START_ARRAY) {
+			readRows(parser, builder);
+		} else if (token == JsonToken.START_OBJECT) {
+			boolean found = false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				if (parser.nextToken() == JsonToken.START_ARRAY && !found) {
+					found = readRows(parser, builder);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		return builder.build(groupCodes, aggregations);
+	}
+
+	/**
+	 * Reads a result from aggregated rows already loaded as JSON.
+	 * 
+	 * @param groupCodes codes of the attributes grouped by, in order
+	 * @param aggregations the aggregations, in order
+	 * @param data the aggregated rows
+	 * @return the result read from the data
+	 */
+	public static AggregationResult fromJson(List<String> groupCodes, List<Aggregation> aggregations, JsonNode data) {
+		try (JsonParser parser = JsonSupport.createParser(data)) {
+			return parse(groupCodes, aggregations, parser);
+		} catch (IOException e) {
+			// reading a tree doesn't do any I/O
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads an array of rows if its first element is a row, otherwise skips
+	 * the array. The parser is positioned at the start of the array.
+	 */
+	private static boolean readRows(JsonParser parser, Builder builder) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token != JsonToken.START_ARRAY && token != JsonToken.END_ARRAY) {
+			while (token != JsonToken.END_ARRAY) {
+				parser.skipChildren();
+				token = parser.nextToken();
+			}
+			return false;
+		}
+		while (token != JsonToken.END_ARRAY) {
+			builder.startRow();
+			if (token == JsonToken.START_ARRAY) {
+				int cell = 0;
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+					builder.set(cell++, token, parser);
+					parser.skipChildren();
+				}
+			} else {
+				parser.skipChildren();
+			}
+			token = parser.nextToken();
+		}
+		return true;
+	}
+
+	private AggregationResult(List<String> groupCodes, List<Aggregation> aggregations, int rowCount,
+		String[][] members, double[][] values) {
+		this.groupCodes = Collections.unmodifiableList(new ArrayList<String>(groupCodes));
+		this.aggregations = Collections.unmodifiableList(new ArrayList<Aggregation>(aggregations));
+		this.rowCount = rowCount;
+		this.members = members;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the codes of the attributes grouped by.
+	 * 
+	 * @return an immutable list of the codes of the attributes grouped by
+	 */
+	public List<String> getGroupCodes() {
+		return groupCodes;
+	}
+
+	/**
+	 * Returns the aggregations in this result.
+	 * 
+	 * @return an immutable list of the aggregations in this result
+	 */
+	public List<Aggregation> getAggregations() {
+		return aggregations;
+	}
+
+	/**
+	 * Returns the number of groups in this result.
+	 * 
+	 * @return the number of groups in this result
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns the member of a group for the attribute at the given position.
+	 * 
+	 * @param row index of the group
+	 * @param group position of the attribute among the attributes grouped by
+	 * @return the member of the group, or null if it has none
+	 * @throws IndexOutOfBoundsException if the row or position is out of range
+	 */
+	public String getMember(int row, int group) throws IndexOutOfBoundsException {
+		return members[group][checkRow(row)];
+	}
+
+	/**
+	 * Returns the member of a group for the attribute with the given code.
+	 * 
+	 * @param row index of the group
+	 * @param attributeCode code of an attribute grouped by
+	 * @return the member of the group, or null if it has none
+	 * @throws IndexOutOfBoundsException if the row is out of range
+	 * @throws IllegalArgumentException if the result isn't grouped by the
+	 *             attribute
+	 */
+	public String getMember(int row, String attributeCode) throws IndexOutOfBoundsException, IllegalArgumentException {
+		int group = groupCodes.indexOf(attributeCode);
+		if (group < 0) {
+			throw new IllegalArgumentException("Result isn't grouped by " + attributeCode);
+		}
+		return getMember(row, group);
+	}
+
+	/**
+	 * Returns an aggregated value of a group.
+	 * 
+	 * @param row index of the group
+	 * @param aggregation position of the aggregation
+	 * @return the aggregated value, or NaN if the group has none
+	 * @throws IndexOutOfBoundsException if the row or position is out of range
+	 */
+	public double getValue(int row, int aggregation) throws IndexOutOfBoundsException {
+		return values[aggregation][checkRow(row)];
+	}
+
+	/**
+	 * Returns an aggregated value of a group.
+	 * 
+	 * @param row index of the group
+	 * @param aggregation an aggregation of this result
+	 * @return the aggregated value, or NaN if the group has none
+	 * @throws IndexOutOfBoundsException if the row is out of range
+	 * @throws IllegalArgumentException if the aggregation isn't part of this
+	 *             result
+	 */
+	public double getValue(int row, Aggregation aggregation) throws IndexOutOfBoundsException, IllegalArgumentException {
+		int position = aggregations.indexOf(aggregation);
+		if (position < 0) {
+			throw new IllegalArgumentException("Result doesn't contain " + aggregation);
+		}
+		return getValue(row, position);
+	}
+
+	/**
+	 * Returns an aggregated value of a group.
+	 * 
+	 * @param row index of the group
+	 * @param indicatorCode code of the aggregated indicator
+	 * @param function function aggregating the indicator
+	 * @return the aggregated value, or NaN if the group has none
+	 * @throws IndexOutOfBoundsException if the row is out of range
+	 * @throws IllegalArgumentException if the aggregation isn't part of this
+	 *             result
+	 */
+	public double getValue(int row, String indicatorCode, AggregationFunction function)
+		throws IndexOutOfBoundsException, IllegalArgumentException {
+		return getValue(row, Aggregation.of(indicatorCode, function));
+	}
+
+	private int checkRow(int row) throws IndexOutOfBoundsException {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("Row " + row + " outside result of " + rowCount + " rows");
+		}
+		return row;
+	}
+
+	@Override
+	public String toString() {
+		return "AggregationResult [groupCodes=" + groupCodes + ", aggregations=" + aggregations + ", rows=" + rowCount
+			+ "]";
+	}
+
+	/**
+	 * Collects rows into growing column arrays, sharing equal member texts.
+	 */
+	private static final class Builder {
+
+		private final String[][] members;
+		private final double[][] values;
+		private final List<Map<String, String>> dictionaries;
+		private int rows;
+
+		Builder(int groupCount, int aggregationCount) {
+			members = new String[groupCount][64];
+			values = new double[aggregationCount][64];
+			dictionaries = new ArrayList<Map<String, String>>(groupCount);
+			for (int i = 0; i < groupCount; i++) {
+				dictionaries.add(new HashMap<String, String>());
+			}
+		}
+
+		void startRow() {
+			if (rows == capacity()) {
+				int capacity = rows * 2;
+				for (int i = 0; i < members.length; i++) {
+					members[i] = Arrays.copyOf(members[i], capacity);
+				}
+				for (int i = 0; i < values.length; i++) {
+					values[i] = Arrays.copyOf(values[i], capacity);
+				}
+			}
+			for (double[] column : values) {
+				column[rows] = Double.NaN;
+			}
+			rows++;
+		}
+
+		private int capacity() {
+			return members.length > 0 ? members[0].length : values.length > 0 ? values[0].length : Integer.MAX_VALUE;
+		}
+
+		void set(int cell, JsonToken token, JsonParser parser) throws IOException {
+			int row = rows - 1;
+			if (cell < members.length) {
+				if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+					String text = parser.getText();
+					String shared = dictionaries.get(cell).putIfAbsent(text, text);
+					members[cell][row] = shared != null ? shared : text;
+				}
+			} else if (cell - members.length < values.length) {
+				values[cell - members.length][row] = readNumber(token, parser);
+			}
+		}
+
+		private static double readNumber(JsonToken token, JsonParser parser) throws IOException {
+			switch (token) {
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+				return parser.getDoubleValue();
+			case VALUE_STRING:
+				try {
+					return Double.parseDouble(parser.getText());
+				} catch (NumberFormatException e) {
+					return Double.NaN;
+				}
+			default:
+				return Double.NaN;
+			}
+		}
+
+		AggregationResult build(List<String> groupCodes, List<Aggregation> aggregations) {
+			String[][] trimmedMembers = new String[members.length][];
+			for (int i = 0; i < members.length; i++) {
+				trimmedMembers[i] = Arrays.copyOf(members[i], rows);
+			}
+			double[][] trimmedValues = new double[values.length][];
+			for (int i = 0; i < values.length; i++) {
+				trimmedValues[i] = Arrays.copyOf(values[i], rows);
+			}
+			return new AggregationResult(groupCodes, aggregations, rows, trimmedMembers, trimmedValues);
+		}
+	}
+}
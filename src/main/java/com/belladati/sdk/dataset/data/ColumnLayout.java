@@ -0,0 +1,112 @@
+package com.belladati.sdk.dataset.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.belladati.sdk.exception.dataset.data.UnknownColumnException;
+
+/**
+ * An immutable list of columns together with an index from each column's code
+ * to its position. A layout is computed once and shared by all rows using the
+ * same columns, so looking up a column by its code doesn't need to scan the
+ * column list.
+ * <p>
+ * Columns should be unique. If multiple columns share the same code, lookups
+ * find the first of them.
+ * 
+ * 
+ */
+public final class ColumnLayout {
+
+	private final List<DataColumn> columns;
+	private final Map<String, Integer> positions;
+
+	/**
+	 * Creates a layout of the given columns. Later changes to the list don't
+	 * affect the layout.
+	 * 
+	 * @param columns the columns in the layout, in order
+	 * @return a layout of the given columns
+	 */
+	public static ColumnLayout of(List<DataColumn> columns) {
+		return new ColumnLayout(columns);
+	}
+
+	/**
+	 * Creates a layout of columns with the given codes and no formats.
+	 * 
+	 * @param columnCodes codes of the columns in the layout, in order
+	 * @return a layout of the given columns
+	 */
+	public static ColumnLayout ofCodes(Collection<String> columnCodes) {
+		List<DataColumn> columns = new ArrayList<DataColumn>(columnCodes.size());
+		for (String code : columnCodes) {
+			columns.add(new DataColumn(code));
+		}
+		return new ColumnLayout(columns);
+	}
+
+	private ColumnLayout(List<DataColumn> columns) {
+		this.columns = Collections.unmodifiableList(new ArrayList<DataColumn>(columns));
+		this.positions = new HashMap<String, Integer>(columns.size() * 4 / 3 + 1);
+		for (int i = 0; i < columns.size(); i++) {
+			positions.putIfAbsent(columns.get(i).getCode(), i);
+		}
+	}
+
+	/**
+	 * Returns all columns in this layout.
+	 * 
+	 * @return an immutable list of all columns in this layout
+	 */
+	public List<DataColumn> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of columns in this layout.
+	 * 
+	 * @return the number of columns in this layout
+	 */
+	public int size() {
+		return columns.size();
+	}
+
+	/**
+	 * Returns the position of the column with the given code.
+	 * 
+	 * @param columnCode code of the column to find
+	 * @return the column's position, or -1 if no such column exists
+	 */
+	public int indexOf(String columnCode) {
+		Integer position = positions.get(columnCode);
+		return position == null ? -1 : position;
+	}
+
+	/**
+	 * Returns a layout of the given columns of this layout, in the given
+	 * order. Columns keep their formats. Use a projected layout for rows
+	 * holding only some columns of a data set, such as rows loaded with
+	 * {@link com.belladati.sdk.BellaDatiService#getDataSetData(String, Collection)}.
+	 * 
+	 * @param columnCodes codes of the columns to keep
+	 * @return a layout of the given columns
+	 * @throws UnknownColumnException if this layout has no column with one of
+	 *             the codes
+	 */
+	public ColumnLayout project(Collection<String> columnCodes) throws UnknownColumnException {
+		List<DataColumn> projected = new ArrayList<DataColumn>(columnCodes.size());
+		for (String code : columnCodes) {
+			int position = indexOf(code);
+			if (position < 0) {
+				throw new UnknownColumnException(code);
+			}
+			projected.add(columns.get(position));
+		}
+		return new ColumnLayout(projected);
+	}
+}
@@ -0,0 +1,142 @@
+package com.belladati.sdk.dataset.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores the values of a single {@link DataTable} column in row order.
+ * <p>
+ * Values are dictionary-encoded: each distinct value is stored once and rows
+ * hold an int reference to it, which keeps columns with repeated values such
+ * as attribute members compact. Columns whose values are mostly distinct gain
+ * nothing from the dictionary; once a column turns out that way, it switches
+ * to a plain array of values.
+ * 
+ * 
+ */
+final class ColumnStore {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** upper bound of distinct values kept in the dictionary */
+	private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+	/** number of rows after which the ratio of distinct values is checked */
+	private static final int MIN_ROWS_FOR_RATIO = 4096;
+
+	/** dictionary mode: value references, 0 for null, else dictionary index + 1 */
+	private int[] references;
+	private String[] dictionary;
+	private Map<String, Integer> dictionaryIndex;
+	private int dictionarySize;
+
+	/** plain mode: values directly */
+	private String[] values;
+
+	private int size;
+
+	ColumnStore() {
+		references = new int[INITIAL_CAPACITY];
+		dictionary = new String[INITIAL_CAPACITY];
+		dictionaryIndex = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Returns the number of rows in this column.
+	 * 
+	 * @return the number of rows in this column
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Appends a row holding null to this column.
+	 */
+	void addRow() {
+		if (values != null) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, grow(size));
+			}
+		} else if (size == references.length) {
+			references = Arrays.copyOf(references, grow(size));
+		}
+		size++;
+	}
+
+	/**
+	 * Returns the value in the given row.
+	 * 
+	 * @param row index of the row
+	 * @return the value in the given row, may be null
+	 */
+	String get(int row) {
+		checkRow(row);
+		if (values != null) {
+			return values[row];
+		}
+		int reference = references[row];
+		return reference == 0 ? null : dictionary[reference - 1];
+	}
+
+	/**
+	 * Sets the value in the given row.
+	 * 
+	 * @param row index of the row
+	 * @param value the value to set, may be null
+	 */
+	void set(int row, String value) {
+		checkRow(row);
+		if (values != null) {
+			values[row] = value;
+			return;
+		}
+		if (value == null) {
+			references[row] = 0;
+			return;
+		}
+		Integer index = dictionaryIndex.get(value);
+		if (index == null) {
+			if (dictionarySize >= MAX_DICTIONARY_SIZE
+				|| (size >= MIN_ROWS_FOR_RATIO && dictionarySize >= size / 2)) {
+				switchToPlain();
+				values[row] = value;
+				return;
+			}
+			if (dictionarySize == dictionary.length) {
+				dictionary = Arrays.copyOf(dictionary, grow(dictionarySize));
+			}
+			index = dictionarySize;
+			dictionary[dictionarySize++] = value;
+			dictionaryIndex.put(value, index);
+		}
+		references[row] = index + 1;
+	}
+
+	/**
+	 * Decodes all rows into a plain array and drops the dictionary.
+	 */
+	private void switchToPlain() {
+		String[] plain = new String[references.length];
+		for (int i = 0; i < size; i++) {
+			int reference = references[i];
+			plain[i] = reference == 0 ? null : dictionary[reference - 1];
+		}
+		values = plain;
+		references = null;
+		dictionary = null;
+		dictionaryIndex = null;
+		dictionarySize = 0;
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + size + " rows");
+		}
+	}
+
+	private static int grow(int capacity) {
+		return capacity + (capacity >> 1) + 1;
+	}
+}
@@ -1,7 +1,10 @@
 package com.belladati.sdk.dataset.data;
 
+import java.io.IOException;
+
+import com.belladati.sdk.util.JsonSupport;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -56,7 +59,7 @@ public final class DataColumn {
 	 * @return this column in JSON representation
 	 */
 	public JsonNode toJson() {
-		ObjectNode node = new ObjectMapper().createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
 		node.put("code", code);
 		if (format != null) {
 			node.put("format", format);
@@ -64,6 +67,22 @@ public final class DataColumn {
 		return node;
 	}
 
+	/**
+	 * Writes this column's JSON representation to the given generator. The
+	 * output is identical to {@link #toJson()}.
+	 * 
+	 * @param generator the generator to write to
+	 * @throws IOException if writing to the generator fails
+	 */
+	public void writeJson(JsonGenerator generator) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("code", code);
+		if (format != null) {
+			generator.writeStringField("format", format);
+		}
+		generator.writeEndObject();
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof DataColumn) {
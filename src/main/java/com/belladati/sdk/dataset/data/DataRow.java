@@ -1,15 +1,14 @@
 package com.belladati.sdk.dataset.data;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import com.belladati.sdk.exception.dataset.data.TooManyColumnsException;
 import com.belladati.sdk.exception.dataset.data.UnknownColumnException;
 import com.belladati.sdk.util.IdElement;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -23,7 +22,19 @@ public class DataRow implements IdElement {
 
 	private final String id;
 	private final List<DataColumn> columns;
-	private final Map<DataColumn, String> content = new HashMap<DataColumn, String>();
+
+	/** column index, recreated if the column list changes */
+	private ColumnLayout layout;
+
+	/** true if the columns come from a layout or table and cannot change */
+	private final boolean fixedColumns;
+
+	/** values of a row that isn't part of a table, by column position */
+	private String[] content;
+
+	/** table holding the content if this row is part of a table */
+	private final DataTable table;
+	private final int row;
 
 	public DataRow(String id) {
 		this(id, new ArrayList<>());
@@ -36,6 +47,43 @@ public class DataRow implements IdElement {
 	public DataRow(String id, List<DataColumn> columns) {
 		this.id = id;
 		this.columns = columns;
+		this.fixedColumns = false;
+		this.content = new String[columns.size()];
+		this.table = null;
+		this.row = -1;
+	}
+
+	/**
+	 * Creates a row using the given column layout. Rows sharing a layout don't
+	 * need to index their columns individually.
+	 * 
+	 * @param id identification of the row, may be null
+	 * @param layout the columns of the row
+	 */
+	public DataRow(String id, ColumnLayout layout) {
+		this.id = id;
+		this.columns = layout.getColumns();
+		this.layout = layout;
+		this.fixedColumns = true;
+		this.content = new String[layout.size()];
+		this.table = null;
+		this.row = -1;
+	}
+
+	/**
+	 * Creates a view of a row stored in the given table.
+	 * 
+	 * @param table the table holding the row's content
+	 * @param row index of the row in the table
+	 */
+	DataRow(DataTable table, int row) {
+		this.id = null;
+		this.columns = table.getColumns();
+		this.layout = table.getColumnLayout();
+		this.fixedColumns = true;
+		this.content = null;
+		this.table = table;
+		this.row = row;
 	}
 
 	/**
@@ -55,12 +103,19 @@ public class DataRow implements IdElement {
 	 * @throws UnknownColumnException if the column doesn't exist
 	 */
 	public String get(String columnCode) throws UnknownColumnException {
-		for (DataColumn column : columns) {
-			if (columnCode.equals(column.getCode())) {
-				return content.get(column);
-			}
-		}
-		throw new UnknownColumnException(columnCode);
+		return valueAt(positionOf(columnCode));
+	}
+
+	/**
+	 * Returns this row's content for the column at the given position.
+	 * 
+	 * @param position index of the column to read
+	 * @return this row's content for the given column
+	 * @throws IndexOutOfBoundsException if there is no column at the position
+	 */
+	public String get(int position) throws IndexOutOfBoundsException {
+		checkPosition(position);
+		return valueAt(position);
 	}
 
 	/**
@@ -70,9 +125,10 @@ public class DataRow implements IdElement {
 	 * @return this row's entire content
 	 */
 	public List<String> getAll() {
-		List<String> values = new ArrayList<String>();
-		for (DataColumn column : columns) {
-			values.add(content.get(column));
+		int size = getColumnLayout().size();
+		List<String> values = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(valueAt(i));
 		}
 		return values;
 	}
@@ -86,13 +142,22 @@ public class DataRow implements IdElement {
 	 * @throws UnknownColumnException if the column doesn't exist
 	 */
 	public DataRow set(String columnCode, String value) throws UnknownColumnException {
-		for (DataColumn column : columns) {
-			if (columnCode.equals(column.getCode())) {
-				content.put(column, value);
-				return this;
-			}
-		}
-		throw new UnknownColumnException(columnCode);
+		setValueAt(positionOf(columnCode), value);
+		return this;
+	}
+
+	/**
+	 * Sets this row's content for the column at the given position.
+	 * 
+	 * @param position index of the column to set
+	 * @param value the value to enter
+	 * @return this row, to allow chaining
+	 * @throws IndexOutOfBoundsException if there is no column at the position
+	 */
+	public DataRow set(int position, String value) throws IndexOutOfBoundsException {
+		checkPosition(position);
+		setValueAt(position, value);
+		return this;
 	}
 
 	/**
@@ -117,11 +182,12 @@ public class DataRow implements IdElement {
 	 *             available after the offset
 	 */
 	public DataRow setAll(int offset, String... values) throws TooManyColumnsException {
-		if (offset + values.length > columns.size()) {
-			throw new TooManyColumnsException(columns.size(), offset + values.length);
+		int size = getColumnLayout().size();
+		if (offset + values.length > size) {
+			throw new TooManyColumnsException(size, offset + values.length);
 		}
-		for (int i = 0; i + offset < columns.size() && i < values.length; i++) {
-			content.put(columns.get(i), values[i - offset]);
+		for (int i = 0; i < values.length; i++) {
+			setValueAt(offset + i, values[i]);
 		}
 		return this;
 	}
@@ -135,6 +201,52 @@ public class DataRow implements IdElement {
 		return columns;
 	}
 
+	/**
+	 * Returns the layout of this row's columns.
+	 * <p>
+	 * Rows created from a {@link ColumnLayout} or stored in a table use that
+	 * layout. For other rows, the column list may be changed at any time, so
+	 * the layout is checked against the list and recreated if any column was
+	 * added, removed, replaced or moved. Values stay with their columns.
+	 * 
+	 * @return the layout of this row's columns
+	 */
+	public ColumnLayout getColumnLayout() {
+		if (!fixedColumns && (layout == null || !matches(layout, columns))) {
+			ColumnLayout previous = layout;
+			layout = ColumnLayout.of(columns);
+			if (previous != null) {
+				// move values to the new positions of their columns
+				String[] moved = new String[layout.size()];
+				for (int i = 0; i < moved.length; i++) {
+					int position = previous.indexOf(columns.get(i).getCode());
+					if (position >= 0 && position < content.length) {
+						moved[i] = content[position];
+					}
+				}
+				content = moved;
+			}
+		}
+		return layout;
+	}
+
+	/**
+	 * Returns true if the layout holds the same column instances as the list,
+	 * in the same order.
+	 */
+	private static boolean matches(ColumnLayout layout, List<DataColumn> columns) {
+		List<DataColumn> laidOut = layout.getColumns();
+		if (laidOut.size() != columns.size()) {
+			return false;
+		}
+		for (int i = 0; i < laidOut.size(); i++) {
+			if (laidOut.get(i) != columns.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns this row in JSON representation.
 	 * 
@@ -150,7 +262,7 @@ public class DataRow implements IdElement {
 	 * @return this row in {@link ArrayNode} representation
 	 */
 	public JsonNode toJsonArray() {
-		ArrayNode node = new ObjectMapper().createArrayNode();
+		ArrayNode node = JsonSupport.createArrayNode();
 		for (String value : getAll()) {
 			node.add(value);
 		}
@@ -163,19 +275,93 @@ public class DataRow implements IdElement {
 	 * @return this row in {@link ObjectNode} representation
 	 */
 	public JsonNode toJsonObject() {
-		ObjectNode node = new ObjectMapper().createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
 		if (id != null) {
 			node.put("id", id);
 		}
-		for (DataColumn column : columns) {
-			String value = content.get(column);
+		List<DataColumn> current = getColumnLayout().getColumns();
+		for (int i = 0; i < current.size(); i++) {
+			String value = valueAt(i);
 			if (value != null) {
-				node.put(column.getCode(), value);
+				node.put(current.get(i).getCode(), value);
 			} else {
-				node.put(column.getCode(), "");
+				node.put(current.get(i).getCode(), "");
 			}
 		}
 		return node;
 	}
 
+	/**
+	 * Reads the value of the column at the given position.
+	 * 
+	 * @param position index of the column
+	 * @return the column's value, may be null
+	 */
+	private String valueAt(int position) {
+		if (table != null) {
+			return table.getValue(row, position);
+		}
+		return position < content.length ? content[position] : null;
+	}
+
+	/**
+	 * Writes the value of the column at the given position.
+	 * 
+	 * @param position index of the column
+	 * @param value the value to write, may be null
+	 */
+	private void setValueAt(int position, String value) {
+		if (table != null) {
+			table.setValue(row, position, value);
+		} else {
+			if (position >= content.length) {
+				content = Arrays.copyOf(content, layout.size());
+			}
+			content[position] = value;
+		}
+	}
+
+	/**
+	 * Finds the position of the column with the given code.
+	 * 
+	 * @param columnCode the column to find
+	 * @return the column's position
+	 * @throws UnknownColumnException if the column doesn't exist
+	 */
+	private int positionOf(String columnCode) throws UnknownColumnException {
+		int position = getColumnLayout().indexOf(columnCode);
+		if (position < 0) {
+			throw new UnknownColumnException(columnCode);
+		}
+		return position;
+	}
+
+	private void checkPosition(int position) throws IndexOutOfBoundsException {
+		int size = getColumnLayout().size();
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Position " + position + " out of bounds for " + size + " columns");
+		}
+	}
+
+	/**
+	 * Rows stored in a table are equal if they refer to the same row of the
+	 * same table. Other rows are only equal to themselves.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (table != null && obj instanceof DataRow) {
+			DataRow other = (DataRow) obj;
+			return table == other.table && row == other.row;
+		}
+		return this == obj;
+	}
+
+	@Override
+	public int hashCode() {
+		if (table != null) {
+			return System.identityHashCode(table) * 31 + row;
+		}
+		return System.identityHashCode(this);
+	}
+
 }
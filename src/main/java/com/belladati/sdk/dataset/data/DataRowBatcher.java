@@ -0,0 +1,497 @@
+package com.belladati.sdk.dataset.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.belladati.sdk.BellaDatiService;
+
+/**
+ * Collects rows posted one by one from any number of threads and sends them to
+ * a data set in batches using
+ * {@link BellaDatiService#postDataSetData(String, java.util.Collection)}. A
+ * batch is sent when it reaches its maximum size or when its first row has
+ * waited for the linger time, whichever comes first. Several batches may be
+ * in progress at the same time, so rows aren't guaranteed to arrive at the
+ * server in the order they were added.
+ * <p>
+ * Rows wait in a buffer of limited capacity. When the buffer is full,
+ * {@link #add(DataRow)} blocks until batches have been sent, slowing down
+ * producers to the rate the server accepts.
+ * <p>
+ * Configure the batcher before adding the first row; it starts sending when
+ * the first row is added. Close it to send all remaining rows.
+ * 
+ * 
+ */
+public final class DataRowBatcher implements AutoCloseable {
+
+	/** default maximum number of rows in one batch */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+	/** default time a row waits for more rows before its batch is sent */
+	public static final long DEFAULT_LINGER_MILLIS = 50;
+
+	/** default number of rows buffered before producers are blocked */
+	public static final int DEFAULT_BUFFER_CAPACITY = 10000;
+
+	/** default number of batches in progress at the same time */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+	/** interval in which the idle dispatcher checks whether it was closed */
+	private static final long IDLE_POLL_MILLIS = 100;
+
+	private final BellaDatiService service;
+	private final String id;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	private long lingerMillis = DEFAULT_LINGER_MILLIS;
+	private int bufferCapacity = DEFAULT_BUFFER_CAPACITY;
+	private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+	private int maxRetries = 0;
+	private long retryDelayMillis = DataTableUploader.DEFAULT_RETRY_DELAY_MILLIS;
+	private Executor executor;
+	private ErrorHandler errorHandler;
+
+	private BlockingQueue<DataRow> buffer;
+	private Semaphore inFlight;
+	private Thread dispatcher;
+
+	/** rows added, but not yet sent or failed */
+	private final Object outstandingLock = new Object();
+	private long outstanding;
+
+	private final AtomicLong sentRows = new AtomicLong();
+	private final AtomicLong failedRows = new AtomicLong();
+	private volatile int flushing;
+	private volatile boolean closed;
+	private volatile boolean stopped;
+
+	/**
+	 * Creates a batcher posting rows to the given data set.
+	 * 
+	 * @param service service to post through
+	 * @param id ID of the data set to post to
+	 */
+	public DataRowBatcher(BellaDatiService service, String id) {
+		this.service = service;
+		this.id = id;
+	}
+
+	/**
+	 * Sets the maximum number of rows in one batch. Defaults to
+	 * {@link #DEFAULT_MAX_BATCH_SIZE}.
+	 * 
+	 * @param maxBatchSize maximum number of rows in one batch
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalArgumentException if maxBatchSize &lt;= 0
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setMaxBatchSize(int maxBatchSize) throws IllegalArgumentException, IllegalStateException {
+		assertNotStarted();
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be positive, was " + maxBatchSize);
+		}
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+
+	/**
+	 * Sets how long a row waits for more rows before its batch is sent.
+	 * Defaults to {@link #DEFAULT_LINGER_MILLIS}.
+	 * 
+	 * @param lingerMillis waiting time in milliseconds
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalArgumentException if lingerMillis &lt; 0
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setLinger(long lingerMillis) throws IllegalArgumentException, IllegalStateException {
+		assertNotStarted();
+		if (lingerMillis < 0) {
+			throw new IllegalArgumentException("Linger time must not be negative, was " + lingerMillis);
+		}
+		this.lingerMillis = lingerMillis;
+		return this;
+	}
+
+	/**
+	 * Sets the number of rows buffered before {@link #add(DataRow)} blocks.
+	 * Defaults to {@link #DEFAULT_BUFFER_CAPACITY}.
+	 * 
+	 * @param bufferCapacity number of buffered rows
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalArgumentException if bufferCapacity &lt;= 0
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setBufferCapacity(int bufferCapacity) throws IllegalArgumentException, IllegalStateException {
+		assertNotStarted();
+		if (bufferCapacity <= 0) {
+			throw new IllegalArgumentException("Buffer capacity must be positive, was " + bufferCapacity);
+		}
+		this.bufferCapacity = bufferCapacity;
+		return this;
+	}
+
+	/**
+	 * Sets the number of batches in progress at the same time. Defaults to
+	 * {@link #DEFAULT_MAX_IN_FLIGHT}.
+	 * 
+	 * @param maxInFlight number of batches in progress at the same time
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalArgumentException if maxInFlight &lt;= 0
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setMaxInFlight(int maxInFlight) throws IllegalArgumentException, IllegalStateException {
+		assertNotStarted();
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Number of batches in flight must be positive, was " + maxInFlight);
+		}
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * Sets how often a batch is retried after failing with a connection
+	 * problem or server error. Defaults to 0, not retrying.
+	 * <p>
+	 * After such an error, the server may already have imported the batch,
+	 * and rows without an ID are added again each time they are posted.
+	 * Batches are therefore only retried if all their rows have an ID, so a
+	 * retry updates the rows of the earlier attempt. Other batches fail
+	 * instead of being imported twice.
+	 * 
+	 * @param maxRetries maximum number of retries per batch, 0 to not retry
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalArgumentException if maxRetries &lt; 0
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setMaxRetries(int maxRetries) throws IllegalArgumentException, IllegalStateException {
+		assertNotStarted();
+		if (maxRetries < 0) {
+			throw new IllegalArgumentException("Number of retries must not be negative, was " + maxRetries);
+		}
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	/**
+	 * Sets the delay before the first retry of a failed batch. Each further
+	 * retry waits one delay longer than the previous one. Defaults to
+	 * {@link DataTableUploader#DEFAULT_RETRY_DELAY_MILLIS}.
+	 * 
+	 * @param retryDelayMillis delay in milliseconds
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalArgumentException if retryDelayMillis &lt; 0
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setRetryDelay(long retryDelayMillis) throws IllegalArgumentException, IllegalStateException {
+		assertNotStarted();
+		if (retryDelayMillis < 0) {
+			throw new IllegalArgumentException("Retry delay must not be negative, was " + retryDelayMillis);
+		}
+		this.retryDelayMillis = retryDelayMillis;
+		return this;
+	}
+
+	/**
+	 * Sets the executor sending the batches. Defaults to the executor of the
+	 * service's {@link BellaDatiService#getExecutionPolicy() execution policy}.
+	 * 
+	 * @param executor executor sending the batches
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setExecutor(Executor executor) throws IllegalStateException {
+		assertNotStarted();
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets a handler notified when a batch couldn't be sent. Without a
+	 * handler, failed rows are only counted.
+	 * 
+	 * @param errorHandler the handler to notify, or null
+	 * @return this batcher, to allow chaining
+	 * @throws IllegalStateException if rows have already been added
+	 */
+	public DataRowBatcher setErrorHandler(ErrorHandler errorHandler) throws IllegalStateException {
+		assertNotStarted();
+		this.errorHandler = errorHandler;
+		return this;
+	}
+
+	/**
+	 * Adds a row to be posted, waiting while the buffer is full.
+	 * 
+	 * @param row the row to post
+	 * @throws IllegalStateException if the batcher has been closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void add(DataRow row) throws IllegalStateException, InterruptedException {
+		start();
+		incrementOutstanding();
+		try {
+			buffer.put(row);
+		} catch (InterruptedException e) {
+			decrementOutstanding(1);
+			throw e;
+		}
+	}
+
+	/**
+	 * Adds a row to be posted, waiting up to the given time while the buffer is
+	 * full.
+	 * 
+	 * @param row the row to post
+	 * @param timeout maximum time to wait
+	 * @param unit unit of the timeout
+	 * @return true if the row was added, false if the buffer remained full
+	 * @throws IllegalStateException if the batcher has been closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean offer(DataRow row, long timeout, TimeUnit unit) throws IllegalStateException, InterruptedException {
+		start();
+		incrementOutstanding();
+		boolean added = false;
+		try {
+			added = buffer.offer(row, timeout, unit);
+			return added;
+		} finally {
+			if (!added) {
+				decrementOutstanding(1);
+			}
+		}
+	}
+
+	/**
+	 * Sends all buffered rows without waiting for the linger time, and waits
+	 * until they have been sent or have failed. Rows added by other threads
+	 * while flushing are included.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void flush() throws InterruptedException {
+		synchronized (outstandingLock) {
+			flushing++;
+			try {
+				while (outstanding > 0) {
+					outstandingLock.wait();
+				}
+			} finally {
+				flushing--;
+			}
+		}
+	}
+
+	/**
+	 * Stops accepting rows, sends all remaining rows and waits until they have
+	 * been sent or have failed.
+	 */
+	@Override
+	public void close() {
+		synchronized (outstandingLock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		try {
+			flush();
+			stopped = true;
+			if (dispatcher != null) {
+				dispatcher.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the number of rows that have been posted successfully.
+	 * 
+	 * @return the number of rows that have been posted
+	 */
+	public long getSentRowCount() {
+		return sentRows.get();
+	}
+
+	/**
+	 * Returns the number of rows that couldn't be posted.
+	 * 
+	 * @return the number of rows that couldn't be posted
+	 */
+	public long getFailedRowCount() {
+		return failedRows.get();
+	}
+
+	private synchronized void assertNotStarted() throws IllegalStateException {
+		if (buffer != null) {
+			throw new IllegalStateException("Batcher must be configured before adding rows");
+		}
+	}
+
+	/**
+	 * Starts the dispatcher when the first row is added.
+	 */
+	private synchronized void start() throws IllegalStateException {
+		if (closed) {
+			throw new IllegalStateException("Batcher has been closed");
+		}
+		if (buffer == null) {
+			if (executor == null) {
+				executor = service.getExecutionPolicy().getExecutor();
+			}
+			buffer = new ArrayBlockingQueue<DataRow>(bufferCapacity);
+			inFlight = new Semaphore(maxInFlight);
+			dispatcher = Thread.ofPlatform().name("belladati-sdk-batcher-" + id).daemon(true).start(this::dispatch);
+		}
+	}
+
+	/**
+	 * Collects buffered rows into batches and hands them to the executor until
+	 * the batcher is closed and all rows have been handed over.
+	 */
+	private void dispatch() {
+		try {
+			while (true) {
+				DataRow first = buffer.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					if (stopped) {
+						return;
+					}
+					continue;
+				}
+				List<DataRow> batch = new ArrayList<DataRow>(Math.min(maxBatchSize, bufferCapacity));
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+				while (batch.size() < maxBatchSize) {
+					buffer.drainTo(batch, maxBatchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= maxBatchSize || flushing > 0 || closed || remaining <= 0) {
+						break;
+					}
+					DataRow next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				inFlight.acquire();
+				try {
+					executor.execute(() -> send(batch));
+				} catch (RejectedExecutionException e) {
+					completed(batch, e);
+				}
+			}
+		} catch (InterruptedException e) {
+			// the dispatcher thread is private, nobody else interrupts it
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Posts a batch, retrying if it fails with a temporary error and posting
+	 * it again cannot add rows twice.
+	 * 
+	 * @param batch the rows to post
+	 */
+	private void send(List<DataRow> batch) {
+		try {
+			int retries = hasIds(batch) ? maxRetries : 0;
+			for (int attempt = 0;; attempt++) {
+				try {
+					service.postDataSetData(id, batch);
+					completed(batch, null);
+					return;
+				} catch (RuntimeException e) {
+					if (attempt >= retries || !DataTableUploader.isRetryable(e)) {
+						throw e;
+					}
+				}
+				Thread.sleep(retryDelayMillis * (attempt + 1));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			completed(batch, e);
+		} catch (Throwable t) {
+			completed(batch, t);
+		}
+	}
+
+	/**
+	 * Returns true if all rows of the batch have an ID, so posting them again
+	 * updates existing rows instead of adding new ones.
+	 */
+	private static boolean hasIds(List<DataRow> batch) {
+		for (DataRow row : batch) {
+			if (row.getId() == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Records the outcome of a batch and releases its slot.
+	 * 
+	 * @param batch the rows of the batch
+	 * @param error the cause of failure, or null if the batch was sent
+	 */
+	private void completed(List<DataRow> batch, Throwable error) {
+		try {
+			if (error == null) {
+				sentRows.addAndGet(batch.size());
+			} else {
+				failedRows.addAndGet(batch.size());
+				if (errorHandler != null) {
+					errorHandler.batchFailed(batch, error);
+				}
+			}
+		} finally {
+			inFlight.release();
+			decrementOutstanding(batch.size());
+		}
+	}
+
+	private void incrementOutstanding() throws IllegalStateException {
+		synchronized (outstandingLock) {
+			if (closed) {
+				throw new IllegalStateException("Batcher has been closed");
+			}
+			outstanding++;
+		}
+	}
+
+	private void decrementOutstanding(int rows) {
+		synchronized (outstandingLock) {
+			outstanding -= rows;
+			if (outstanding == 0) {
+				outstandingLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Receives batches that couldn't be posted by a {@link DataRowBatcher}.
+	 * 
+	 * 
+	 */
+	@FunctionalInterface
+	public interface ErrorHandler {
+		/**
+		 * Called on the sending thread when a batch has failed, after all
+		 * retries.
+		 * 
+		 * @param rows the rows of the failed batch
+		 * @param error the cause of the failure
+		 */
+		void batchFailed(List<DataRow> rows, Throwable error);
+	}
+}
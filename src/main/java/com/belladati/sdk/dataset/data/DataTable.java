@@ -1,28 +1,38 @@
 package com.belladati.sdk.dataset.data;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 import com.belladati.sdk.exception.dataset.data.NoColumnsException;
 import com.belladati.sdk.exception.dataset.data.TooManyColumnsException;
 import com.belladati.sdk.exception.dataset.data.UnknownColumnException;
+import com.belladati.sdk.util.JsonSupport;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * A table holding data ready for import. Ensures that each row sticks to the
  * column structure defined in the constructor.
+ * <p>
+ * Values are stored by column rather than by row, with repeated values stored
+ * only once per column. Rows returned from {@link #createRow()} and
+ * {@link #getRows()} are views reading from and writing to the table.
  * 
  * 
  */
 public class DataTable {
 
+	private final ColumnLayout layout;
 	private final List<DataColumn> columns;
-	private final List<DataRow> rows = new ArrayList<DataRow>();
+	private final ColumnStore[] store;
+	private int rowCount;
 	private OverwritePolicy overwritePolicy = OverwritePolicy.deleteNone();
 	private Integer templateId;
 	private Integer splitByColumn;
@@ -99,7 +109,12 @@ public class DataTable {
 		if (columns.isEmpty()) {
 			throw new NoColumnsException();
 		}
-		this.columns = Collections.unmodifiableList(new ArrayList<DataColumn>(columns));
+		this.layout = ColumnLayout.of(columns);
+		this.columns = layout.getColumns();
+		this.store = new ColumnStore[columns.size()];
+		for (int i = 0; i < store.length; i++) {
+			store[i] = new ColumnStore();
+		}
 	}
 
 	/**
@@ -111,7 +126,13 @@ public class DataTable {
 	 *             available
 	 */
 	public DataTable createRow(String... values) throws TooManyColumnsException {
-		rows.add(new DataRow(columns).setAll(values));
+		if (values.length > columns.size()) {
+			throw new TooManyColumnsException(columns.size(), values.length);
+		}
+		int row = appendRow();
+		for (int i = 0; i < values.length; i++) {
+			store[i].set(row, values[i]);
+		}
 		return this;
 	}
 
@@ -121,18 +142,26 @@ public class DataTable {
 	 * @return the newly created row
 	 */
 	public DataRow createRow() {
-		DataRow row = new DataRow(columns);
-		rows.add(row);
-		return row;
+		return new DataRow(this, appendRow());
 	}
 
 	/**
-	 * Returns all rows currently in this table.
+	 * Returns all rows currently in this table. Rows added to the table later
+	 * are not included in the returned list.
 	 * 
 	 * @return all rows currently in this table
 	 */
 	public List<DataRow> getRows() {
-		return Collections.unmodifiableList(new ArrayList<DataRow>(rows));
+		return new RowList(rowCount);
+	}
+
+	/**
+	 * Returns the number of rows currently in this table.
+	 * 
+	 * @return the number of rows currently in this table
+	 */
+	public int getRowCount() {
+		return rowCount;
 	}
 
 	/**
@@ -144,6 +173,16 @@ public class DataTable {
 		return columns;
 	}
 
+	/**
+	 * Returns the layout of this table's columns, shared by all rows in the
+	 * table.
+	 * 
+	 * @return the layout of this table's columns
+	 */
+	public ColumnLayout getColumnLayout() {
+		return layout;
+	}
+
 	/**
 	 * Sets the overwrite policy to use with this table. If none is set,
 	 * {@link OverwritePolicy#deleteNone()} is used.
@@ -183,6 +222,49 @@ public class DataTable {
 		return this;
 	}
 
+	/**
+	 * Returns the ID of the import template used for processing this table.
+	 * 
+	 * @return the ID of the import template, or null if none is set
+	 */
+	public Integer getTemplateId() {
+		return templateId;
+	}
+
+	/**
+	 * Returns the index of the column used in split data functionality.
+	 * 
+	 * @return index of the column, or null if none is set
+	 */
+	public Integer getSplitByColumn() {
+		return splitByColumn;
+	}
+
+	/**
+	 * Creates a new table with the same columns and settings as this table,
+	 * containing copies of the given rows.
+	 * 
+	 * @param rows indices of the rows to copy, or null to copy rows by their
+	 *            own index
+	 * @param from first index to copy, inclusive
+	 * @param to last index to copy, exclusive
+	 * @param overwritePolicy overwrite policy of the new table
+	 * @return a new table containing the given rows
+	 */
+	DataTable copyRows(int[] rows, int from, int to, OverwritePolicy overwritePolicy) {
+		DataTable copy = new DataTable(columns);
+		copy.overwritePolicy = overwritePolicy;
+		copy.templateId = templateId;
+		copy.splitByColumn = splitByColumn;
+		for (int i = from; i < to; i++) {
+			int row = copy.appendRow();
+			for (int column = 0; column < store.length; column++) {
+				copy.store[column].set(row, store[column].get(rows == null ? i : rows[i]));
+			}
+		}
+		return copy;
+	}
+
 	/**
 	 * Asserts that the given attribute exists as a column in this table.
 	 * 
@@ -190,12 +272,45 @@ public class DataTable {
 	 * @throws UnknownColumnException if the attribute doesn't exist
 	 */
 	private void assertAttributeExists(String attribute) throws UnknownColumnException {
-		for (DataColumn column : columns) {
-			if (column.getCode().equals(attribute)) {
-				return;
-			}
+		if (layout.indexOf(attribute) < 0) {
+			throw new UnknownColumnException(attribute);
 		}
-		throw new UnknownColumnException(attribute);
+	}
+
+	/**
+	 * Appends an empty row to all columns.
+	 * 
+	 * @return index of the new row
+	 */
+	private int appendRow() {
+		for (ColumnStore column : store) {
+			column.addRow();
+		}
+		return rowCount++;
+	}
+
+	/**
+	 * Returns the value stored at the given position. Used by rows to read
+	 * their content.
+	 * 
+	 * @param row index of the row
+	 * @param column index of the column
+	 * @return the value stored at the given position, may be null
+	 */
+	String getValue(int row, int column) {
+		return store[column].get(row);
+	}
+
+	/**
+	 * Stores a value at the given position. Used by rows to write their
+	 * content.
+	 * 
+	 * @param row index of the row
+	 * @param column index of the column
+	 * @param value the value to store, may be null
+	 */
+	void setValue(int row, int column, String value) {
+		store[column].set(row, value);
 	}
 
 	/**
@@ -208,21 +323,25 @@ public class DataTable {
 	}
 
 	/**
-	 * Returns this table in JSON representation.
+	 * Returns this table in JSON representation. The returned tree holds a copy
+	 * of all values in the table; use {@link #writeJson(OutputStream)} to
+	 * serialize large tables without building the tree.
 	 * 
 	 * @return this table in JSON representation
 	 */
 	public JsonNode toJson() {
-		ObjectMapper mapper = new ObjectMapper();
-		ObjectNode node = mapper.createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
 
-		ArrayNode columnsNode = mapper.createArrayNode();
+		ArrayNode columnsNode = JsonSupport.createArrayNode();
 		for (DataColumn column : columns) {
 			columnsNode.add(column.toJson());
 		}
-		ArrayNode dataNode = mapper.createArrayNode();
-		for (DataRow row : rows) {
-			dataNode.add(row.toJson());
+		ArrayNode dataNode = JsonSupport.createArrayNode();
+		for (int row = 0; row < rowCount; row++) {
+			ArrayNode rowNode = dataNode.addArray();
+			for (ColumnStore column : store) {
+				rowNode.add(column.get(row));
+			}
 		}
 
 		node.put("columns", columnsNode);
@@ -236,4 +355,87 @@ public class DataTable {
 		}
 		return node;
 	}
+
+	/**
+	 * Writes this table's JSON representation to the given stream, one row at
+	 * a time. The output is identical to {@link #toJson()}. The stream is
+	 * flushed, but not closed.
+	 * 
+	 * @param out the stream to write to
+	 * @throws IOException if writing to the stream fails
+	 */
+	public void writeJson(OutputStream out) throws IOException {
+		try (JsonGenerator generator = JsonSupport.createGenerator(out)) {
+			writeJson(generator);
+		}
+	}
+
+	/**
+	 * Writes this table's JSON representation to the given generator, one row
+	 * at a time. The output is identical to {@link #toJson()}.
+	 * 
+	 * @param generator the generator to write to
+	 * @throws IOException if writing to the generator fails
+	 */
+	public void writeJson(JsonGenerator generator) throws IOException {
+		generator.writeStartObject();
+
+		generator.writeArrayFieldStart("columns");
+		for (DataColumn column : columns) {
+			column.writeJson(generator);
+		}
+		generator.writeEndArray();
+
+		generator.writeArrayFieldStart("data");
+		for (int row = 0; row < rowCount; row++) {
+			generator.writeStartArray();
+			for (ColumnStore column : store) {
+				String value = column.get(row);
+				if (value != null) {
+					generator.writeString(value);
+				} else {
+					generator.writeNull();
+				}
+			}
+			generator.writeEndArray();
+		}
+		generator.writeEndArray();
+
+		generator.writeFieldName("overwrite");
+		JsonSupport.writeTree(generator, overwritePolicy.toJson());
+		if (templateId != null) {
+			generator.writeNumberField("templateId", templateId);
+		}
+		if (splitByColumn != null) {
+			generator.writeNumberField("splitByColumn", splitByColumn);
+		}
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Immutable list of the rows present in this table when the list was
+	 * created. Row views are created on access.
+	 * 
+	 * 
+	 */
+	private class RowList extends AbstractList<DataRow> implements RandomAccess {
+		private final int size;
+
+		private RowList(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public DataRow get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " rows");
+			}
+			return new DataRow(DataTable.this, index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
 }
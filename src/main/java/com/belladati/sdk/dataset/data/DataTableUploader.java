@@ -0,0 +1,494 @@
+package com.belladati.sdk.dataset.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+
+import com.belladati.sdk.BellaDatiService;
+import com.belladati.sdk.exception.ConnectionException;
+import com.belladati.sdk.exception.dataset.data.DataUploadException;
+import com.belladati.sdk.exception.server.InternalErrorException;
+import com.belladati.sdk.exception.server.UnexpectedResponseException;
+
+/**
+ * Uploads a large {@link DataTable} to a data set in multiple parts, sending
+ * several parts at the same time. Each part is a separate call to
+ * {@link BellaDatiService#uploadData(String, DataTable)}, so a failure only
+ * affects the part that failed, and failed parts are retried individually.
+ * <p>
+ * The table's {@link OverwritePolicy} is respected across parts:
+ * <ul>
+ * <li>Policies deleting data once, such as {@link OverwritePolicy#deleteAll()},
+ * are sent only with the first part. The remaining parts are sent after the
+ * first part has completed.</li>
+ * <li>Policies matching imported records to existing ones, such as
+ * {@link OverwritePolicy#byAttributes(List)}, are sent with every part. Rows
+ * that are equal in the matched attributes are always placed in the same part,
+ * which may make a part exceed the configured size. Since empty values in
+ * existing data match anything, attributes that are empty in any row aren't
+ * used to separate rows.</li>
+ * <li>{@link OverwritePolicy#byAllAttributes()} matches all attributes of the
+ * data set, which cannot be told apart from indicators in the table, so the
+ * table is sent in a single part.</li>
+ * </ul>
+ * Parts are determined only by the table's content, the chunk size and the
+ * overwrite policy. If an upload fails, it can be resumed by uploading the
+ * same table again, skipping the parts listed in
+ * {@link DataUploadException#getCompletedChunks()}.
+ * <p>
+ * Instances are not thread-safe, and the table must not be modified during
+ * the upload.
+ * 
+ * 
+ */
+public final class DataTableUploader {
+
+	/** default maximum number of rows in one part */
+	public static final int DEFAULT_CHUNK_SIZE = 100000;
+
+	/** default number of parts uploaded at the same time */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	/** default number of retries for a failed part */
+	public static final int DEFAULT_MAX_RETRIES = 3;
+
+	/** default delay before retrying a failed part */
+	public static final long DEFAULT_RETRY_DELAY_MILLIS = 1000;
+
+	private final BellaDatiService service;
+	private final String id;
+	private final DataTable table;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private int parallelism = DEFAULT_PARALLELISM;
+	private int maxRetries = DEFAULT_MAX_RETRIES;
+	private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+	private Executor executor;
+	private ProgressListener listener;
+	private final Set<Integer> skippedChunks = new HashSet<Integer>();
+
+	/**
+	 * Creates an uploader sending the given table to a data set.
+	 * 
+	 * @param service service to upload through
+	 * @param id ID of the data set to upload to
+	 * @param table the data to upload
+	 */
+	public DataTableUploader(BellaDatiService service, String id, DataTable table) {
+		this.service = service;
+		this.id = id;
+		this.table = table;
+	}
+
+	/**
+	 * Sets the maximum number of rows in one part. Defaults to
+	 * {@link #DEFAULT_CHUNK_SIZE}.
+	 * 
+	 * @param chunkSize maximum number of rows in one part
+	 * @return this uploader, to allow chaining
+	 * @throws IllegalArgumentException if chunkSize &lt;= 0
+	 */
+	public DataTableUploader setChunkSize(int chunkSize) throws IllegalArgumentException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive, was " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Sets the number of parts uploaded at the same time. Defaults to
+	 * {@link #DEFAULT_PARALLELISM}.
+	 * 
+	 * @param parallelism number of parts uploaded at the same time
+	 * @return this uploader, to allow chaining
+	 * @throws IllegalArgumentException if parallelism &lt;= 0
+	 */
+	public DataTableUploader setParallelism(int parallelism) throws IllegalArgumentException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets how often a part is retried after failing with a connection problem
+	 * or server error. Errors in the data, such as unknown columns, are not
+	 * retried. Defaults to {@link #DEFAULT_MAX_RETRIES}.
+	 * <p>
+	 * After such an error, the server may already have imported the part.
+	 * Parts are therefore only retried if their overwrite policy replaces the
+	 * records of an earlier attempt, such as
+	 * {@link OverwritePolicy#byAttributes(List)} or the first part of
+	 * {@link OverwritePolicy#deleteAll()}. Other parts fail instead of being
+	 * imported twice; check the data set before uploading them again.
+	 * 
+	 * @param maxRetries maximum number of retries per part, 0 to not retry
+	 * @return this uploader, to allow chaining
+	 * @throws IllegalArgumentException if maxRetries &lt; 0
+	 */
+	public DataTableUploader setMaxRetries(int maxRetries) throws IllegalArgumentException {
+		if (maxRetries < 0) {
+			throw new IllegalArgumentException("Number of retries must not be negative, was " + maxRetries);
+		}
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	/**
+	 * Sets the delay before the first retry of a failed part. Each further
+	 * retry waits one delay longer than the previous one. Defaults to
+	 * {@link #DEFAULT_RETRY_DELAY_MILLIS}.
+	 * 
+	 * @param retryDelayMillis delay in milliseconds
+	 * @return this uploader, to allow chaining
+	 * @throws IllegalArgumentException if retryDelayMillis &lt; 0
+	 */
+	public DataTableUploader setRetryDelay(long retryDelayMillis) throws IllegalArgumentException {
+		if (retryDelayMillis < 0) {
+			throw new IllegalArgumentException("Retry delay must not be negative, was " + retryDelayMillis);
+		}
+		this.retryDelayMillis = retryDelayMillis;
+		return this;
+	}
+
+	/**
+	 * Sets the executor uploading the parts. Defaults to the executor of the
+	 * service's {@link BellaDatiService#getExecutionPolicy() execution policy}.
+	 * 
+	 * @param executor executor uploading the parts
+	 * @return this uploader, to allow chaining
+	 */
+	public DataTableUploader setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets a listener notified whenever a part has been uploaded.
+	 * 
+	 * @param listener the listener to notify, or null
+	 * @return this uploader, to allow chaining
+	 */
+	public DataTableUploader setProgressListener(ProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Skips the parts with the given indices, typically because they have been
+	 * uploaded by an earlier, failed attempt.
+	 * 
+	 * @param chunks indices of the parts to skip
+	 * @return this uploader, to allow chaining
+	 * @see DataUploadException#getCompletedChunks()
+	 */
+	public DataTableUploader skipChunks(Collection<Integer> chunks) {
+		skippedChunks.addAll(chunks);
+		return this;
+	}
+
+	/**
+	 * Uploads the table, returning when all parts have been uploaded. Progress
+	 * is reported on the calling thread.
+	 * <p>
+	 * If a part fails, no further parts are started. Parts already in progress
+	 * are completed before the exception is thrown.
+	 * 
+	 * @throws DataUploadException if any part failed to upload
+	 */
+	public void upload() throws DataUploadException {
+		OverwritePolicy policy = table.getOverwritePolicy();
+		List<Chunk> chunks = createChunks(policy);
+		int chunkCount = chunks.size();
+
+		Set<Integer> completed = new HashSet<Integer>();
+		Deque<Chunk> pending = new ArrayDeque<Chunk>();
+		for (Chunk chunk : chunks) {
+			if (skippedChunks.contains(chunk.index)) {
+				completed.add(chunk.index);
+			} else {
+				pending.add(chunk);
+			}
+		}
+		int totalRows = table.getRowCount();
+		int uploadedRows = 0;
+
+		CompletionService<Result> results = new ExecutorCompletionService<Result>(
+			executor != null ? executor : service.getExecutionPolicy().getExecutor());
+		// a policy deleting data must complete before other parts are imported
+		boolean exclusive = policy.deletesOnce() && !pending.isEmpty() && pending.peek().index == 0;
+		Map<Integer, Throwable> failed = new TreeMap<Integer, Throwable>();
+		Throwable cause = null;
+		int inProgress = 0;
+
+		while (true) {
+			while (failed.isEmpty() && !pending.isEmpty() && inProgress < (exclusive ? 1 : parallelism)) {
+				Chunk chunk = pending.poll();
+				OverwritePolicy chunkPolicy = !policy.deletesOnce() || chunk.index == 0 ? policy : OverwritePolicy.deleteNone();
+				results.submit(() -> send(chunk, chunkPolicy));
+				inProgress++;
+			}
+			if (inProgress == 0) {
+				break;
+			}
+			Result result;
+			try {
+				result = results.take().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DataUploadException(id, chunkCount, completed, failed, e);
+			} catch (ExecutionException e) {
+				// send() reports its failures in the result
+				throw new IllegalStateException(e.getCause());
+			}
+			inProgress--;
+			exclusive = false;
+			if (result.error == null) {
+				completed.add(result.chunk.index);
+				uploadedRows += result.chunk.size();
+				if (listener != null) {
+					listener.chunkUploaded(result.chunk.index, chunkCount, uploadedRows, totalRows);
+				}
+			} else {
+				failed.put(result.chunk.index, result.error);
+				if (cause == null) {
+					cause = result.error;
+				}
+			}
+		}
+		if (!failed.isEmpty()) {
+			throw new DataUploadException(id, chunkCount, completed, failed, cause);
+		}
+	}
+
+	/**
+	 * Uploads a single part, retrying if it fails with a temporary error.
+	 * 
+	 * @param chunk the part to upload
+	 * @param policy overwrite policy for the part
+	 * @return the result of the upload
+	 */
+	private Result send(Chunk chunk, OverwritePolicy policy) {
+		try {
+			DataTable part = table.copyRows(chunk.ordered, chunk.from, chunk.to, policy);
+			for (int attempt = 0;; attempt++) {
+				try {
+					service.uploadData(id, part);
+					return new Result(chunk, null);
+				} catch (RuntimeException e) {
+					if (attempt >= maxRetries || !policy.replacesOwnRows() || !isRetryable(e)) {
+						throw e;
+					}
+				}
+				Thread.sleep(retryDelayMillis * (attempt + 1));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new Result(chunk, e);
+		} catch (Throwable t) {
+			return new Result(chunk, t);
+		}
+	}
+
+	/**
+	 * Returns true if the given exception indicates a temporary problem after
+	 * which a request may succeed when sent again.
+	 * 
+	 * @param e the exception to check
+	 * @return true if the request should be retried
+	 */
+	static boolean isRetryable(RuntimeException e) {
+		if (e instanceof ConnectionException || e instanceof InternalErrorException) {
+			return true;
+		}
+		if (e instanceof UnexpectedResponseException) {
+			int code = ((UnexpectedResponseException) e).getResponseCode();
+			return code >= 500 || code == 429;
+		}
+		return false;
+	}
+
+	/**
+	 * Splits the table into parts. If the policy matches records by attributes,
+	 * rows are grouped by their values in those attributes first.
+	 * 
+	 * @param policy the table's overwrite policy
+	 * @return the parts of the table, at least one
+	 */
+	private List<Chunk> createChunks(OverwritePolicy policy) {
+		int rowCount = table.getRowCount();
+		List<Chunk> chunks = new ArrayList<Chunk>();
+		List<String> attributes = policy.getMatchingAttributes(table.getColumns());
+		if (policy.requiresSingleUpload()) {
+			chunks.add(new Chunk(0, null, 0, rowCount));
+		} else if (attributes.isEmpty()) {
+			for (int from = 0; from < rowCount; from += chunkSize) {
+				chunks.add(new Chunk(chunks.size(), null, from, Math.min(from + chunkSize, rowCount)));
+			}
+		} else {
+			int[] groupStarts = new int[rowCount + 1];
+			int[] ordered = groupRows(attributes, groupStarts);
+			int from = 0;
+			for (int group = 0; groupStarts[group] < rowCount; group++) {
+				int end = groupStarts[group + 1];
+				if (end - from > chunkSize && groupStarts[group] > from) {
+					chunks.add(new Chunk(chunks.size(), ordered, from, groupStarts[group]));
+					from = groupStarts[group];
+				}
+			}
+			if (from < rowCount) {
+				chunks.add(new Chunk(chunks.size(), ordered, from, rowCount));
+			}
+		}
+		if (chunks.isEmpty()) {
+			// an empty table is still uploaded to apply its overwrite policy
+			chunks.add(new Chunk(0, null, 0, 0));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Orders the table's rows so that rows that may match each other in the
+	 * given attributes are adjacent, keeping the original order otherwise.
+	 * <p>
+	 * An uploaded row with an empty value matches rows uploaded later in any
+	 * value of that attribute, so attributes that are empty in any row are
+	 * left out of the grouping. Rows that may match then always agree in the
+	 * remaining attributes; if none remain, all rows form a single group.
+	 * 
+	 * @param attributes codes of the attributes to group by
+	 * @param groupStarts receives the start index of each group in the
+	 *            returned array, followed by the number of rows
+	 * @return indices of all rows, grouped
+	 */
+	private int[] groupRows(List<String> attributes, int[] groupStarts) {
+		int rowCount = table.getRowCount();
+		ColumnLayout layout = table.getColumnLayout();
+		int[] candidates = new int[attributes.size()];
+		int positionCount = 0;
+		for (String attribute : attributes) {
+			int position = layout.indexOf(attribute);
+			if (position >= 0 && !hasEmptyValue(position)) {
+				candidates[positionCount++] = position;
+			}
+		}
+		int[] positions = Arrays.copyOf(candidates, positionCount);
+
+		Map<List<String>, Integer> groupIds = new HashMap<List<String>, Integer>();
+		int[] groupOfRow = new int[rowCount];
+		int[] groupSizes = new int[rowCount + 1];
+		for (int row = 0; row < rowCount; row++) {
+			String[] key = new String[positions.length];
+			for (int i = 0; i < positions.length; i++) {
+				key[i] = table.getValue(row, positions[i]);
+			}
+			Integer group = groupIds.get(Arrays.asList(key));
+			if (group == null) {
+				group = groupIds.size();
+				groupIds.put(Arrays.asList(key), group);
+			}
+			groupOfRow[row] = group;
+			groupSizes[group]++;
+		}
+
+		int groupCount = groupIds.size();
+		for (int group = 0, start = 0; group <= groupCount; group++) {
+			groupStarts[group] = start;
+			start += groupSizes[group];
+		}
+		int[] next = Arrays.copyOf(groupStarts, groupCount);
+		int[] ordered = new int[rowCount];
+		for (int row = 0; row < rowCount; row++) {
+			ordered[next[groupOfRow[row]]++] = row;
+		}
+		return ordered;
+	}
+
+	/**
+	 * Returns true if any row of the table has no value in the given column.
+	 * 
+	 * @param position position of the column
+	 * @return true if the column is empty in any row
+	 */
+	private boolean hasEmptyValue(int position) {
+		for (int row = 0; row < table.getRowCount(); row++) {
+			String value = table.getValue(row, position);
+			if (value == null || value.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Receives progress notifications from a {@link DataTableUploader}.
+	 * 
+	 * 
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		/**
+		 * Called on the uploading thread whenever a part has been uploaded.
+		 * 
+		 * @param chunk index of the uploaded part
+		 * @param chunkCount total number of parts
+		 * @param uploadedRows number of rows uploaded so far, excluding
+		 *            skipped parts
+		 * @param totalRows number of rows in the table
+		 */
+		void chunkUploaded(int chunk, int chunkCount, int uploadedRows, int totalRows);
+	}
+
+	/**
+	 * A part of the table, referring to a range of rows.
+	 * 
+	 * 
+	 */
+	private static class Chunk {
+		private final int index;
+		/** row indices the range refers to, or null for the rows themselves */
+		private final int[] ordered;
+		private final int from;
+		private final int to;
+
+		private Chunk(int index, int[] ordered, int from, int to) {
+			this.index = index;
+			this.ordered = ordered;
+			this.from = from;
+			this.to = to;
+		}
+
+		private int size() {
+			return to - from;
+		}
+	}
+
+	/**
+	 * The outcome of uploading a part.
+	 * 
+	 * 
+	 */
+	private static class Result {
+		private final Chunk chunk;
+		private final Throwable error;
+
+		private Result(Chunk chunk, Throwable error) {
+			this.chunk = chunk;
+			this.error = error;
+		}
+	}
+}
@@ -12,8 +12,8 @@ import java.util.List;
 import com.belladati.sdk.exception.dataset.data.NoColumnsException;
 import com.belladati.sdk.exception.interval.InvalidAbsoluteIntervalException;
 import com.belladati.sdk.intervals.DateUnit;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -193,21 +193,78 @@ public abstract class OverwritePolicy {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Returns true if this policy deletes data once for the entire import.
+	 * When an import is split into multiple uploads, such a policy may only be
+	 * sent with the first upload.
+	 * 
+	 * @return true if this policy deletes data once for the entire import
+	 */
+	boolean deletesOnce() {
+		return false;
+	}
+
+	/**
+	 * Returns the codes of the columns by which imported records are matched to
+	 * existing records. When an import is split into multiple uploads, records
+	 * that are equal in these columns must be sent in the same upload.
+	 * 
+	 * @param columns the columns of the imported table
+	 * @return the matching columns, or an empty list if the policy doesn't
+	 *         match records
+	 */
+	List<String> getMatchingAttributes(List<DataColumn> columns) {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns true if an import using this policy cannot be split into
+	 * multiple uploads, because it matches records by columns that cannot be
+	 * determined from the imported table alone.
+	 * 
+	 * @return true if an import must be sent in a single upload
+	 */
+	boolean requiresSingleUpload() {
+		return false;
+	}
+
+	/**
+	 * Returns true if sending the same upload again replaces the records
+	 * imported by an earlier attempt instead of adding them a second time.
+	 * Only such uploads can safely be retried after an error that leaves it
+	 * unknown whether the server has imported them.
+	 * 
+	 * @return true if repeating an upload doesn't duplicate records
+	 */
+	boolean replacesOwnRows() {
+		return false;
+	}
+
 	private static class NoOverwritePolicy extends OverwritePolicy {
 		private static final NoOverwritePolicy INSTANCE = new NoOverwritePolicy();
 
 		@Override
 		public JsonNode toJson() {
-			return new ObjectMapper().createObjectNode();
+			return JsonSupport.createObjectNode();
 		}
 	}
 
 	private static class AllOverwritePolicy extends OverwritePolicy {
 		private static final AllOverwritePolicy INSTANCE = new AllOverwritePolicy();
 
+		@Override
+		boolean deletesOnce() {
+			return true;
+		}
+
+		@Override
+		boolean replacesOwnRows() {
+			return true;
+		}
+
 		@Override
 		public JsonNode toJson() {
-			return new ObjectMapper().createObjectNode().put("policy", DELETE_ALL);
+			return JsonSupport.createObjectNode().put("policy", DELETE_ALL);
 		}
 	}
 
@@ -231,9 +288,14 @@ public abstract class OverwritePolicy {
 			return Collections.singletonList(attribute);
 		}
 
+		@Override
+		boolean deletesOnce() {
+			return true;
+		}
+
 		@Override
 		public JsonNode toJson() {
-			ObjectNode json = new ObjectMapper().createObjectNode();
+			ObjectNode json = JsonSupport.createObjectNode();
 			json.put("policy", DELETE_ALL);
 			json.put("dateAttribute", attribute);
 
@@ -266,11 +328,21 @@ public abstract class OverwritePolicy {
 			return attributes;
 		}
 
+		@Override
+		List<String> getMatchingAttributes(List<DataColumn> columns) {
+			return attributes;
+		}
+
+		@Override
+		boolean replacesOwnRows() {
+			return true;
+		}
+
 		@Override
 		public JsonNode toJson() {
-			ObjectNode json = new ObjectMapper().createObjectNode();
+			ObjectNode json = JsonSupport.createObjectNode();
 			json.put("policy", DELETE_BY_MEMBERS);
-			ArrayNode attributes = new ObjectMapper().createArrayNode();
+			ArrayNode attributes = JsonSupport.createArrayNode();
 			for (String attribute : this.attributes) {
 				attributes.add(attribute);
 			}
@@ -296,11 +368,21 @@ public abstract class OverwritePolicy {
 			return attributes;
 		}
 
+		@Override
+		List<String> getMatchingAttributes(List<DataColumn> columns) {
+			return attributes;
+		}
+
+		@Override
+		boolean replacesOwnRows() {
+			return true;
+		}
+
 		@Override
 		public JsonNode toJson() {
-			ObjectNode json = new ObjectMapper().createObjectNode();
+			ObjectNode json = JsonSupport.createObjectNode();
 			json.put("policy", UPDATE_BY_VALUES);
-			ArrayNode attributes = new ObjectMapper().createArrayNode();
+			ArrayNode attributes = JsonSupport.createArrayNode();
 			for (String attribute : this.attributes) {
 				attributes.add(attribute);
 			}
@@ -312,9 +394,23 @@ public abstract class OverwritePolicy {
 	private static class AllAttributeOverwritePolicy extends OverwritePolicy {
 		private static final AllAttributeOverwritePolicy INSTANCE = new AllAttributeOverwritePolicy();
 
+		/**
+		 * The table's columns include indicators, which aren't matched, so
+		 * rows can't be grouped by the matched attributes.
+		 */
+		@Override
+		boolean requiresSingleUpload() {
+			return true;
+		}
+
+		@Override
+		boolean replacesOwnRows() {
+			return true;
+		}
+
 		@Override
 		public JsonNode toJson() {
-			return new ObjectMapper().createObjectNode().put("policy", DELETE_BY_MEMBERS).put("attributesAll", true);
+			return JsonSupport.createObjectNode().put("policy", DELETE_BY_MEMBERS).put("attributesAll", true);
 		}
 	}
 }
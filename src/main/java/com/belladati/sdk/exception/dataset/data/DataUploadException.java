@@ -0,0 +1,78 @@
+package com.belladati.sdk.exception.dataset.data;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.belladati.sdk.exception.BellaDatiRuntimeException;
+
+/**
+ * Thrown when uploading one or more parts of a data table failed. Parts that
+ * were uploaded successfully remain in the data set; pass them to
+ * {@link com.belladati.sdk.dataset.data.DataTableUploader#skipChunks(java.util.Collection)}
+ * to resume the upload without sending them again.
+ * 
+ * 
+ */
+public class DataUploadException extends BellaDatiRuntimeException {
+
+	/** The serialVersionUID */
+	private static final long serialVersionUID = -2271546127316484810L;
+
+	private final String id;
+	private final int chunkCount;
+	private final TreeSet<Integer> completedChunks;
+	private final TreeMap<Integer, Throwable> failedChunks;
+
+	public DataUploadException(String id, int chunkCount, Set<Integer> completedChunks, Map<Integer, Throwable> failedChunks,
+		Throwable cause) {
+		super("Failed to upload " + failedChunks.size() + " of " + chunkCount + " parts to data set " + id + ".", cause);
+		this.id = id;
+		this.chunkCount = chunkCount;
+		this.completedChunks = new TreeSet<Integer>(completedChunks);
+		this.failedChunks = new TreeMap<Integer, Throwable>(failedChunks);
+	}
+
+	/**
+	 * Returns the ID of the data set.
+	 * 
+	 * @return the ID of the data set
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the number of parts the table was split into.
+	 * 
+	 * @return the number of parts the table was split into
+	 */
+	public int getChunkCount() {
+		return chunkCount;
+	}
+
+	/**
+	 * Returns the indices of all parts that have been uploaded, including parts
+	 * skipped because they were uploaded earlier.
+	 * 
+	 * @return the indices of all uploaded parts
+	 */
+	public SortedSet<Integer> getCompletedChunks() {
+		return Collections.unmodifiableSortedSet(completedChunks);
+	}
+
+	/**
+	 * Returns the parts that failed to upload, with the exception that caused
+	 * the last attempt to fail. Parts that weren't attempted are neither
+	 * completed nor failed.
+	 * 
+	 * @return the indices of failed parts with their causes
+	 */
+	public SortedMap<Integer, Throwable> getFailedChunks() {
+		return Collections.unmodifiableSortedMap(failedChunks);
+	}
+}
@@ -1,13 +1,20 @@
 package com.belladati.sdk.filter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import com.belladati.sdk.dataset.Attribute;
 import com.belladati.sdk.dataset.AttributeValue;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -19,6 +26,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  * This class cannot be instantiated directly; use
  * {@link FilterOperation#createFilter(Attribute)} on one of the static
  * operations in {@link FilterOperation} instead.
+ * <p>
+ * Filters can also be applied to data that has already been loaded using a
+ * {@link FilterPredicate}.
  * 
  * 
  */
@@ -28,6 +38,8 @@ public abstract class Filter<F extends Filter<?>> {
 	private final FilterOperation<F> operation;
 	/** the attribute the filter is applied to */
 	private final Attribute attribute;
+	/** lazily computed key, reset whenever the filter changes */
+	private volatile String key;
 
 	private Filter(FilterOperation<F> operation, Attribute attribute) {
 		this.operation = operation;
@@ -59,9 +71,8 @@ public abstract class Filter<F extends Filter<?>> {
 	 * @return a JSON representation of this filter
 	 */
 	public ObjectNode toJson() {
-		ObjectMapper mapper = new ObjectMapper();
-		ObjectNode node = mapper.createObjectNode();
-		ObjectNode attributeNode = mapper.createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
+		ObjectNode attributeNode = JsonSupport.createObjectNode();
 
 		node.put(attribute.getCode(), attributeNode);
 		attributeNode.put("op", operation.getOp());
@@ -69,22 +80,93 @@ public abstract class Filter<F extends Filter<?>> {
 		return node;
 	}
 
+	/**
+	 * Returns a string identifying this filter's current definition. Filters
+	 * with the same definition have the same key; unlike {@link #toJson()},
+	 * the key doesn't depend on the order of the filter's values. Used by the
+	 * SDK internally, for example to detect identical requests.
+	 * <p>
+	 * The key is computed once and reused until the filter is changed.
+	 * 
+	 * @return a string identifying this filter's definition
+	 */
+	public String getKey() {
+		String current = key;
+		if (current == null) {
+			StringBuilder builder = new StringBuilder();
+			appendKey(builder);
+			current = builder.toString();
+			key = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the {@link #getKey() key} of this filter in UTF-8, for use in
+	 * binary cache keys.
+	 * 
+	 * @return a new array holding the filter's key
+	 */
+	public byte[] getKeyBytes() {
+		return getKey().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Discards the cached key after the filter has changed.
+	 */
+	void keyChanged() {
+		key = null;
+	}
+
+	/**
+	 * Appends the parts of this filter's key to the given builder.
+	 * 
+	 * @param key builder receiving the key
+	 */
+	void appendKey(StringBuilder key) {
+		appendKeyPart(key, attribute.getCode());
+		appendKeyPart(key, operation.getOp());
+	}
+
+	/**
+	 * Appends a part to a key, prefixed with its length to keep parts
+	 * containing separators unambiguous.
+	 * 
+	 * @param key builder receiving the key
+	 * @param part the part to append, may be null
+	 */
+	static void appendKeyPart(StringBuilder key, String part) {
+		if (part == null) {
+			key.append('-');
+		} else {
+			key.append(part.length()).append(':').append(part);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return toJson().toString();
 	}
 
+	/**
+	 * Filters are equal if they are of the same type and have the same
+	 * {@link #getKey() key}. A filter must not be changed while it is held in a
+	 * hash-based collection.
+	 */
 	@Override
 	public boolean equals(Object obj) {
-		if (obj instanceof Filter) {
-			return toJson().equals(((Filter<?>) obj).toJson());
+		if (obj == this) {
+			return true;
+		}
+		if (obj instanceof Filter && getClass().equals(obj.getClass())) {
+			return getKey().equals(((Filter<?>) obj).getKey());
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return toJson().hashCode();
+		return getKey().hashCode();
 	}
 
 	/**
@@ -108,7 +190,7 @@ public abstract class Filter<F extends Filter<?>> {
 	 * 
 	 */
 	public static class MultiValueFilter extends Filter<MultiValueFilter> {
-		private final Set<AttributeValue> values = new HashSet<>();
+		private final Set<AttributeValue> values = new ValueSet();
 
 		MultiValueFilter(FilterOperation<MultiValueFilter> operation, Attribute attribute) {
 			super(operation, attribute);
@@ -117,6 +199,7 @@ public abstract class Filter<F extends Filter<?>> {
 		/**
 		 * Returns the set of attribute values used in this filter. This set is
 		 * mutable, any changes made to the set will directly affect the filter.
+		 * Don't change it while the filter is held in a hash-based collection.
 		 * 
 		 * @return the set of attribute values used in this filter
 		 */
@@ -156,16 +239,94 @@ public abstract class Filter<F extends Filter<?>> {
 			return this;
 		}
 
+		@Override
+		void appendKey(StringBuilder key) {
+			super.appendKey(key);
+			List<String> sorted = new ArrayList<String>(values.size());
+			for (AttributeValue value : values) {
+				sorted.add(value.getValue());
+			}
+			Collections.sort(sorted, Comparator.nullsFirst(Comparator.<String> naturalOrder()));
+			key.append(sorted.size()).append(':');
+			for (String value : sorted) {
+				appendKeyPart(key, value);
+			}
+		}
+
 		@Override
 		public ObjectNode toJson() {
 			ObjectNode node = super.toJson();
-			ArrayNode filterValues = new ObjectMapper().createArrayNode();
+			ArrayNode filterValues = JsonSupport.createArrayNode();
 			for (AttributeValue value : values) {
 				filterValues.add(value.getValue());
 			}
 			((ObjectNode) node.get(getAttribute().getCode())).put("values", filterValues);
 			return node;
 		}
+
+		/**
+		 * Holds the filter's values, discarding the filter's key whenever the
+		 * values change.
+		 */
+		private final class ValueSet extends AbstractSet<AttributeValue> {
+			private final Set<AttributeValue> delegate = new HashSet<AttributeValue>();
+
+			@Override
+			public Iterator<AttributeValue> iterator() {
+				Iterator<AttributeValue> iterator = delegate.iterator();
+				return new Iterator<AttributeValue>() {
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public AttributeValue next() {
+						return iterator.next();
+					}
+
+					@Override
+					public void remove() {
+						iterator.remove();
+						keyChanged();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return delegate.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return delegate.contains(o);
+			}
+
+			@Override
+			public boolean add(AttributeValue value) {
+				if (delegate.add(value)) {
+					keyChanged();
+					return true;
+				}
+				return false;
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				if (delegate.remove(o)) {
+					keyChanged();
+					return true;
+				}
+				return false;
+			}
+
+			@Override
+			public void clear() {
+				delegate.clear();
+				keyChanged();
+			}
+		}
 	}
 
 	/**
@@ -193,9 +354,16 @@ public abstract class Filter<F extends Filter<?>> {
 
 		public SingleValueFilter setValue(AttributeValue value) {
 			this.value = value;
+			keyChanged();
 			return this;
 		}
 
+		@Override
+		void appendKey(StringBuilder key) {
+			super.appendKey(key);
+			appendKeyPart(key, value == null ? null : value.getValue());
+		}
+
 		@Override
 		public ObjectNode toJson() {
 			ObjectNode node = super.toJson();
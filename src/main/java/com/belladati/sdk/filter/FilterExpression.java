@@ -0,0 +1,543 @@
+package com.belladati.sdk.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.belladati.sdk.dataset.AttributeValue;
+import com.belladati.sdk.dataset.data.DataRow;
+import com.belladati.sdk.filter.Filter.MultiValueFilter;
+import com.belladati.sdk.filter.Filter.NoValueFilter;
+import com.belladati.sdk.filter.Filter.SingleValueFilter;
+
+/**
+ * A combination of {@link Filter}s using AND, OR and NOT. Build expressions
+ * with {@link #of(Filter)}, {@link #and(FilterExpression...)},
+ * {@link #or(FilterExpression...)} and {@link #not(FilterExpression)}.
+ * <p>
+ * {@link #optimize()} simplifies an expression, for example by merging
+ * alternative values of the same attribute into a single
+ * {@link FilterOperation#IN} filter. The server only accepts a list of
+ * filters on distinct attributes, all of which must match. An expression that
+ * is, or optimizes to, such a conjunction can be sent to the server in a
+ * single request wherever a list of filters is accepted; see
+ * {@link #toFilters()}.
+ * <p>
+ * Other expressions, such as OR across different attributes, can only be
+ * evaluated on the client: load the data using a conjunction that includes
+ * all matching rows, or none, and select the matching rows using
+ * {@link #toPredicate()}.
+ * <p>
+ * Expressions are immutable, but hold the filters they were built from. Don't
+ * change those filters after building an expression.
+ * 
+ * 
+ */
+public abstract class FilterExpression {
+
+	private FilterExpression() {}
+
+	/**
+	 * Creates an expression consisting of a single filter.
+	 * 
+	 * @param filter the filter
+	 * @return an expression matching the filter
+	 */
+	public static FilterExpression of(Filter<?> filter) {
+		return new Leaf(filter);
+	}
+
+	/**
+	 * Creates an expression matching if all the given filters match.
+	 * 
+	 * @param filters the filters to combine
+	 * @return an expression matching if all filters match
+	 */
+	public static FilterExpression allOf(Collection<? extends Filter<?>> filters) {
+		List<FilterExpression> children = new ArrayList<FilterExpression>(filters.size());
+		for (Filter<?> filter : filters) {
+			children.add(new Leaf(filter));
+		}
+		return new And(children);
+	}
+
+	/**
+	 * Creates an expression matching if all the given expressions match.
+	 * 
+	 * @param expressions the expressions to combine
+	 * @return an expression matching if all expressions match
+	 */
+	public static FilterExpression and(FilterExpression... expressions) {
+		return new And(Arrays.asList(expressions));
+	}
+
+	/**
+	 * Creates an expression matching if any of the given expressions match.
+	 * 
+	 * @param expressions the expressions to combine
+	 * @return an expression matching if any expression matches
+	 */
+	public static FilterExpression or(FilterExpression... expressions) {
+		return new Or(Arrays.asList(expressions));
+	}
+
+	/**
+	 * Creates an expression matching if the given expression doesn't match.
+	 * 
+	 * @param expression the expression to negate
+	 * @return an expression matching if the expression doesn't match
+	 */
+	public static FilterExpression not(FilterExpression expression) {
+		return new Not(expression);
+	}
+
+	/**
+	 * Returns a simplified expression matching the same data. Nested
+	 * combinations of the same kind are flattened, negations of equality and
+	 * null checks are moved into the filters, {@link FilterOperation#EQ} and
+	 * {@link FilterOperation#IN}
+	 * filters on the same attribute combined with OR are merged into one
+	 * {@link FilterOperation#IN} filter, and {@link FilterOperation#NEQ} and
+	 * {@link FilterOperation#NOT_IN} filters on the same attribute combined
+	 * with AND are merged into one {@link FilterOperation#NOT_IN} filter.
+	 * <p>
+	 * Negated comparisons such as {@link FilterOperation#GT} are kept, since
+	 * a missing value matches neither a comparison nor its opposite.
+	 * 
+	 * @return a simplified expression
+	 */
+	public abstract FilterExpression optimize();
+
+	/**
+	 * Returns the filters of this expression if it is a single filter or a
+	 * conjunction of filters on distinct attributes, which can be sent to the
+	 * server as a list of filters.
+	 * 
+	 * @return the filters of this expression, or null if the expression
+	 *         cannot be expressed as a list of filters
+	 */
+	public abstract List<Filter<?>> toConjunction();
+
+	/**
+	 * Returns the filters to send to the server for this expression, after
+	 * {@link #optimize() optimizing} it.
+	 * 
+	 * @return the filters to send to the server
+	 * @throws UnsupportedOperationException if the optimized expression isn't a
+	 *             conjunction of filters on distinct attributes
+	 */
+	public Filter<?>[] toFilters() throws UnsupportedOperationException {
+		List<Filter<?>> filters = optimize().toConjunction();
+		if (filters == null) {
+			throw new UnsupportedOperationException("Expression cannot be sent as a list of filters: " + this);
+		}
+		return filters.toArray(new Filter<?>[filters.size()]);
+	}
+
+	/**
+	 * Returns a predicate evaluating this expression on data rows, as
+	 * described in {@link FilterPredicate}.
+	 * 
+	 * @return a predicate evaluating this expression
+	 */
+	public abstract Predicate<DataRow> toPredicate();
+
+	/**
+	 * Returns a string identifying this expression, built from the
+	 * {@link Filter#getKey() keys} of its filters.
+	 * 
+	 * @return a string identifying this expression
+	 */
+	public abstract String getKey();
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof FilterExpression) {
+			return getKey().equals(((FilterExpression) obj).getKey());
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return getKey().hashCode();
+	}
+
+	/**
+	 * A single filter.
+	 */
+	private static final class Leaf extends FilterExpression {
+		private final Filter<?> filter;
+
+		private Leaf(Filter<?> filter) {
+			this.filter = filter;
+		}
+
+		@Override
+		public FilterExpression optimize() {
+			return this;
+		}
+
+		@Override
+		public List<Filter<?>> toConjunction() {
+			return Collections.<Filter<?>> singletonList(filter);
+		}
+
+		@Override
+		public Predicate<DataRow> toPredicate() {
+			return FilterPredicate.of(filter);
+		}
+
+		@Override
+		public String getKey() {
+			return filter.getKey();
+		}
+
+		@Override
+		public String toString() {
+			return filter.toString();
+		}
+
+		private String getOp() {
+			return filter.getOperation().getOp();
+		}
+
+		private String getCode() {
+			return filter.getAttribute().getCode();
+		}
+
+		/**
+		 * Returns the values of an EQ, NEQ, IN or NOT_IN filter by their
+		 * string value.
+		 */
+		private Map<String, AttributeValue> values() {
+			Map<String, AttributeValue> values = new LinkedHashMap<String, AttributeValue>();
+			if (filter instanceof MultiValueFilter) {
+				for (AttributeValue value : ((MultiValueFilter) filter).getValues()) {
+					values.put(value.getValue(), value);
+				}
+			} else {
+				AttributeValue value = ((SingleValueFilter) filter).getValue();
+				values.put(value.getValue(), value);
+			}
+			return values;
+		}
+
+		/**
+		 * Returns a filter matching exactly the values this filter doesn't, or
+		 * null if there is none.
+		 */
+		private Leaf negate() {
+			FilterOperation<?> operation = filter.getOperation();
+			if (filter instanceof NoValueFilter) {
+				return new Leaf((operation == FilterOperation.NULL ? FilterOperation.NOT_NULL : FilterOperation.NULL)
+					.createFilter(filter.getAttribute()));
+			}
+			if (filter instanceof MultiValueFilter) {
+				return new Leaf((operation == FilterOperation.IN ? FilterOperation.NOT_IN : FilterOperation.IN)
+					.createFilter(filter.getAttribute()).addAll(((MultiValueFilter) filter).getValues()));
+			}
+			FilterOperation.SingleValueOperation negated;
+			switch (getOp()) {
+			case "EQ":
+				negated = FilterOperation.NEQ;
+				break;
+			case "NEQ":
+				negated = FilterOperation.EQ;
+				break;
+			default:
+				// a missing value matches neither a comparison nor its opposite
+				return null;
+			}
+			return new Leaf(negated.createFilter(filter.getAttribute()).setValue(((SingleValueFilter) filter).getValue()));
+		}
+	}
+
+	/**
+	 * A combination of expressions, all or any of which must match.
+	 */
+	private abstract static class Group extends FilterExpression {
+		final List<FilterExpression> children;
+
+		private Group(List<FilterExpression> children) {
+			this.children = Collections.unmodifiableList(new ArrayList<FilterExpression>(children));
+		}
+
+		abstract String getName();
+
+		abstract Group create(List<FilterExpression> children);
+
+		/**
+		 * Operations of the filters merged by this group, and the operation of
+		 * the merged filter.
+		 */
+		abstract Set<String> getMergedOps();
+
+		abstract FilterOperation.MultiValueOperation getMergedOperation();
+
+		@Override
+		public FilterExpression optimize() {
+			List<FilterExpression> flat = new ArrayList<FilterExpression>();
+			for (FilterExpression child : children) {
+				FilterExpression optimized = child.optimize();
+				if (optimized.getClass() == getClass()) {
+					flat.addAll(((Group) optimized).children);
+				} else {
+					flat.add(optimized);
+				}
+			}
+			List<FilterExpression> merged = merge(flat);
+			return merged.size() == 1 ? merged.get(0) : create(merged);
+		}
+
+		/**
+		 * Merges filters on the same attribute using mergeable operations,
+		 * placing the merged filter where the first of them was.
+		 */
+		private List<FilterExpression> merge(List<FilterExpression> expressions) {
+			Map<String, List<Leaf>> byAttribute = new LinkedHashMap<String, List<Leaf>>();
+			for (FilterExpression expression : expressions) {
+				if (isMergeable(expression)) {
+					Leaf leaf = (Leaf) expression;
+					List<Leaf> leaves = byAttribute.get(leaf.getCode());
+					if (leaves == null) {
+						leaves = new ArrayList<Leaf>();
+						byAttribute.put(leaf.getCode(), leaves);
+					}
+					leaves.add(leaf);
+				}
+			}
+			List<FilterExpression> result = new ArrayList<FilterExpression>(expressions.size());
+			for (FilterExpression expression : expressions) {
+				if (!isMergeable(expression)) {
+					result.add(expression);
+					continue;
+				}
+				List<Leaf> leaves = byAttribute.get(((Leaf) expression).getCode());
+				if (leaves.size() == 1) {
+					result.add(expression);
+				} else if (leaves.get(0) == expression) {
+					Map<String, AttributeValue> values = new LinkedHashMap<String, AttributeValue>();
+					for (Leaf leaf : leaves) {
+						values.putAll(leaf.values());
+					}
+					result.add(new Leaf(getMergedOperation().createFilter(leaves.get(0).filter.getAttribute()).addAll(
+						values.values())));
+				}
+			}
+			return result;
+		}
+
+		private boolean isMergeable(FilterExpression expression) {
+			if (!(expression instanceof Leaf)) {
+				return false;
+			}
+			Filter<?> filter = ((Leaf) expression).filter;
+			if (!getMergedOps().contains(filter.getOperation().getOp())) {
+				return false;
+			}
+			return !(filter instanceof SingleValueFilter) || ((SingleValueFilter) filter).getValue() != null;
+		}
+
+		@Override
+		public Predicate<DataRow> toPredicate() {
+			List<Predicate<DataRow>> predicates = new ArrayList<Predicate<DataRow>>(children.size());
+			for (FilterExpression child : children) {
+				predicates.add(child.toPredicate());
+			}
+			return combine(predicates);
+		}
+
+		abstract Predicate<DataRow> combine(List<Predicate<DataRow>> predicates);
+
+		@Override
+		public String getKey() {
+			StringBuilder key = new StringBuilder(getName()).append('(').append(children.size()).append(':');
+			for (FilterExpression child : children) {
+				Filter.appendKeyPart(key, child.getKey());
+			}
+			return key.append(')').toString();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder string = new StringBuilder(getName()).append('(');
+			for (int i = 0; i < children.size(); i++) {
+				string.append(i > 0 ? ", " : "").append(children.get(i));
+			}
+			return string.append(')').toString();
+		}
+	}
+
+	/**
+	 * Matches if all children match.
+	 */
+	private static final class And extends Group {
+		private static final Set<String> MERGED_OPS = new HashSet<String>(Arrays.asList(FilterOperation.NEQ.getOp(),
+			FilterOperation.NOT_IN.getOp()));
+
+		private And(List<FilterExpression> children) {
+			super(children);
+		}
+
+		@Override
+		String getName() {
+			return "and";
+		}
+
+		@Override
+		Group create(List<FilterExpression> children) {
+			return new And(children);
+		}
+
+		@Override
+		Set<String> getMergedOps() {
+			return MERGED_OPS;
+		}
+
+		@Override
+		FilterOperation.MultiValueOperation getMergedOperation() {
+			return FilterOperation.NOT_IN;
+		}
+
+		@Override
+		Predicate<DataRow> combine(List<Predicate<DataRow>> predicates) {
+			return row -> {
+				for (Predicate<DataRow> predicate : predicates) {
+					if (!predicate.test(row)) {
+						return false;
+					}
+				}
+				return true;
+			};
+		}
+
+		@Override
+		public List<Filter<?>> toConjunction() {
+			List<Filter<?>> filters = new ArrayList<Filter<?>>();
+			Set<String> codes = new HashSet<String>();
+			for (FilterExpression child : children) {
+				List<Filter<?>> childFilters = child.toConjunction();
+				if (childFilters == null) {
+					return null;
+				}
+				for (Filter<?> filter : childFilters) {
+					if (!codes.add(filter.getAttribute().getCode())) {
+						// filters are keyed by attribute, only one per attribute
+						return null;
+					}
+					filters.add(filter);
+				}
+			}
+			return filters;
+		}
+	}
+
+	/**
+	 * Matches if any child matches.
+	 */
+	private static final class Or extends Group {
+		private static final Set<String> MERGED_OPS = new HashSet<String>(Arrays.asList(FilterOperation.EQ.getOp(),
+			FilterOperation.IN.getOp()));
+
+		private Or(List<FilterExpression> children) {
+			super(children);
+		}
+
+		@Override
+		String getName() {
+			return "or";
+		}
+
+		@Override
+		Group create(List<FilterExpression> children) {
+			return new Or(children);
+		}
+
+		@Override
+		Set<String> getMergedOps() {
+			return MERGED_OPS;
+		}
+
+		@Override
+		FilterOperation.MultiValueOperation getMergedOperation() {
+			return FilterOperation.IN;
+		}
+
+		@Override
+		Predicate<DataRow> combine(List<Predicate<DataRow>> predicates) {
+			return row -> {
+				for (Predicate<DataRow> predicate : predicates) {
+					if (predicate.test(row)) {
+						return true;
+					}
+				}
+				return false;
+			};
+		}
+
+		@Override
+		public List<Filter<?>> toConjunction() {
+			return children.size() == 1 ? children.get(0).toConjunction() : null;
+		}
+	}
+
+	/**
+	 * Matches if its child doesn't match.
+	 */
+	private static final class Not extends FilterExpression {
+		private final FilterExpression child;
+
+		private Not(FilterExpression child) {
+			this.child = child;
+		}
+
+		@Override
+		public FilterExpression optimize() {
+			FilterExpression optimized = child.optimize();
+			if (optimized instanceof Not) {
+				return ((Not) optimized).child;
+			}
+			if (optimized instanceof Leaf) {
+				Leaf negated = ((Leaf) optimized).negate();
+				return negated != null ? negated : new Not(optimized);
+			}
+			// De Morgan: negate each child and swap AND and OR
+			Group group = (Group) optimized;
+			List<FilterExpression> negated = new ArrayList<FilterExpression>(group.children.size());
+			for (FilterExpression groupChild : group.children) {
+				negated.add(new Not(groupChild));
+			}
+			return (group instanceof And ? new Or(negated) : new And(negated)).optimize();
+		}
+
+		@Override
+		public List<Filter<?>> toConjunction() {
+			return null;
+		}
+
+		@Override
+		public Predicate<DataRow> toPredicate() {
+			return child.toPredicate().negate();
+		}
+
+		@Override
+		public String getKey() {
+			StringBuilder key = new StringBuilder("not(");
+			Filter.appendKeyPart(key, child.getKey());
+			return key.append(')').toString();
+		}
+
+		@Override
+		public String toString() {
+			return "not(" + child + ")";
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package com.belladati.sdk.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.belladati.sdk.dataset.AttributeValue;
+import com.belladati.sdk.dataset.data.ColumnLayout;
+import com.belladati.sdk.dataset.data.DataRow;
+import com.belladati.sdk.exception.dataset.data.UnknownColumnException;
+import com.belladati.sdk.filter.Filter.MultiValueFilter;
+import com.belladati.sdk.filter.Filter.SingleValueFilter;
+
+/**
+ * Evaluates filters on the client, selecting the {@link DataRow}s the server
+ * would return for the same filters. Use it to narrow data that has already
+ * been loaded without sending another request.
+ * <p>
+ * A row matches if it matches all filters. Each filter is applied to the
+ * column whose code is the code of the filter's attribute:
+ * <ul>
+ * <li>{@link FilterOperation#NULL} matches missing and empty values,
+ * {@link FilterOperation#NOT_NULL} all others.</li>
+ * <li>{@link FilterOperation#IN} matches values equal to one of the filter's
+ * values, {@link FilterOperation#NOT_IN} all others.</li>
+ * <li>All operations compare numerically if both values are numbers and
+ * lexically otherwise, which orders ISO dates correctly. The same rule is used
+ * for equality in {@link FilterOperation#EQ} and {@link FilterOperation#IN},
+ * so <code>"1.0"</code> equals <code>"1"</code> in both. Missing values match
+ * only {@link FilterOperation#NEQ} and {@link FilterOperation#NOT_IN}.</li>
+ * </ul>
+ * These rules approximate the server's filtering; values the server compares
+ * differently, such as formatted numbers, may match differently.
+ * Filters are compiled when the predicate is created; later changes to them
+ * don't affect the predicate. Column positions are looked up once per
+ * {@link ColumnLayout}, so testing rows sharing a layout, such as the rows of
+ * a table, doesn't look up their columns again. Predicates are thread-safe.
+ * 
+ * 
+ */
+public final class FilterPredicate implements Predicate<DataRow> {
+
+	private final String[] columns;
+	private final List<Predicate<String>> tests;
+
+	/** positions of the columns in the layout of the most recent row */
+	private volatile Positions positions;
+
+	/**
+	 * Creates a predicate matching rows that match all the given filters.
+	 * 
+	 * @param filters the filters to match
+	 * @return a predicate matching rows that match all filters
+	 */
+	public static FilterPredicate of(Filter<?>... filters) {
+		return of(Arrays.asList(filters));
+	}
+
+	/**
+	 * Creates a predicate matching rows that match all the given filters.
+	 * 
+	 * @param filters the filters to match
+	 * @return a predicate matching rows that match all filters
+	 */
+	public static FilterPredicate of(Collection<? extends Filter<?>> filters) {
+		String[] columns = new String[filters.size()];
+		List<Predicate<String>> tests = new ArrayList<Predicate<String>>(filters.size());
+		for (Filter<?> filter : filters) {
+			columns[tests.size()] = filter.getAttribute().getCode();
+			tests.add(compile(filter));
+		}
+		return new FilterPredicate(columns, tests);
+	}
+
+	private FilterPredicate(String[] columns, List<Predicate<String>> tests) {
+		this.columns = columns;
+		this.tests = tests;
+	}
+
+	/**
+	 * Returns true if the row matches all filters of this predicate.
+	 * 
+	 * @param row the row to test
+	 * @return true if the row matches all filters
+	 * @throws UnknownColumnException if the row has no column for one of the
+	 *             filters
+	 */
+	@Override
+	public boolean test(DataRow row) throws UnknownColumnException {
+		int[] current = positionsIn(row.getColumnLayout());
+		for (int i = 0; i < current.length; i++) {
+			if (!tests.get(i).test(row.get(current[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the positions of the filtered columns in the given layout,
+	 * reusing the previous positions if the layout hasn't changed.
+	 */
+	private int[] positionsIn(ColumnLayout layout) throws UnknownColumnException {
+		Positions current = positions;
+		if (current == null || current.layout != layout) {
+			int[] resolved = new int[columns.length];
+			for (int i = 0; i < columns.length; i++) {
+				resolved[i] = layout.indexOf(columns[i]);
+				if (resolved[i] < 0) {
+					throw new UnknownColumnException(columns[i]);
+				}
+			}
+			current = new Positions(layout, resolved);
+			positions = current;
+		}
+		return current.positions;
+	}
+
+	/**
+	 * Compiles a filter to a test of a single column value.
+	 */
+	private static Predicate<String> compile(Filter<?> filter) {
+		String op = filter.getOperation().getOp();
+		if (filter instanceof MultiValueFilter) {
+			Set<String> texts = new HashSet<String>();
+			double[] numbers = new double[((MultiValueFilter) filter).getValues().size()];
+			int numberCount = 0;
+			for (AttributeValue value : ((MultiValueFilter) filter).getValues()) {
+				String text = value.getValue();
+				if (text != null) {
+					texts.add(text);
+					double number = parseNumber(text);
+					if (!Double.isNaN(number)) {
+						numbers[numberCount++] = number;
+					}
+				}
+			}
+			double[] sorted = Arrays.copyOf(numbers, numberCount);
+			Arrays.sort(sorted);
+			// equal as in compare(): the same text, or numbers with the same value
+			Predicate<String> contains = value -> texts.contains(value)
+				|| (sorted.length > 0 && containsNumber(sorted, parseNumber(value)));
+			if (op.equals(FilterOperation.NOT_IN.getOp())) {
+				return value -> value == null || !contains.test(value);
+			}
+			return value -> value != null && contains.test(value);
+		}
+		if (filter instanceof SingleValueFilter) {
+			AttributeValue filterValue = ((SingleValueFilter) filter).getValue();
+			String target = filterValue == null ? null : filterValue.getValue();
+			if (target == null) {
+				// only equality is defined for a missing filter value
+				if (op.equals(FilterOperation.NEQ.getOp())) {
+					return value -> value != null;
+				}
+				boolean equality = op.equals(FilterOperation.EQ.getOp());
+				return value -> equality && value == null;
+			}
+			double number = parseNumber(target);
+			switch (op) {
+			case "EQ":
+				return value -> value != null && compare(value, target, number) == 0;
+			case "NEQ":
+				return value -> value == null || compare(value, target, number) != 0;
+			case "GT":
+				return value -> value != null && compare(value, target, number) > 0;
+			case "GTE":
+				return value -> value != null && compare(value, target, number) >= 0;
+			case "LT":
+				return value -> value != null && compare(value, target, number) < 0;
+			case "LTE":
+				return value -> value != null && compare(value, target, number) <= 0;
+			default:
+				throw new IllegalArgumentException("Unsupported filter operation " + op);
+			}
+		}
+		if (op.equals(FilterOperation.NOT_NULL.getOp())) {
+			return value -> value != null && !value.isEmpty();
+		}
+		return value -> value == null || value.isEmpty();
+	}
+
+	/**
+	 * Compares a value with a filter's value, numerically if both are numbers.
+	 */
+	private static int compare(String value, String target, double targetNumber) {
+		if (!Double.isNaN(targetNumber)) {
+			double number = parseNumber(value);
+			if (!Double.isNaN(number)) {
+				return Double.compare(number, targetNumber);
+			}
+		}
+		return value.compareTo(target);
+	}
+
+	/**
+	 * Returns true if the sorted array contains the given number.
+	 */
+	private static boolean containsNumber(double[] sorted, double number) {
+		return !Double.isNaN(number) && Arrays.binarySearch(sorted, number) >= 0;
+	}
+
+	/**
+	 * Parses text that is a plain decimal number, optionally signed and with
+	 * an exponent, returning NaN otherwise. Text that isn't a number is
+	 * rejected without being parsed.
+	 */
+	private static double parseNumber(String text) {
+		int length = text.length();
+		int i = 0;
+		if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+			i++;
+		}
+		int digits = 0;
+		while (i < length && isDigit(text.charAt(i))) {
+			i++;
+			digits++;
+		}
+		if (i < length && text.charAt(i) == '.') {
+			i++;
+			while (i < length && isDigit(text.charAt(i))) {
+				i++;
+				digits++;
+			}
+		}
+		if (digits == 0) {
+			return Double.NaN;
+		}
+		if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+			i++;
+			if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				i++;
+			}
+			int exponentDigits = 0;
+			while (i < length && isDigit(text.charAt(i))) {
+				i++;
+				exponentDigits++;
+			}
+			if (exponentDigits == 0) {
+				return Double.NaN;
+			}
+		}
+		return i == length ? Double.parseDouble(text) : Double.NaN;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Column positions resolved for one layout.
+	 */
+	private static final class Positions {
+		private final ColumnLayout layout;
+		private final int[] positions;
+
+		private Positions(ColumnLayout layout, int[] positions) {
+			this.layout = layout;
+			this.positions = positions;
+		}
+	}
+}
@@ -4,7 +4,7 @@ import java.util.Calendar;
 
 import com.belladati.sdk.exception.interval.InvalidAbsoluteIntervalException;
 import com.belladati.sdk.exception.interval.NullIntervalException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -79,7 +79,7 @@ public class AbsoluteInterval<U extends IntervalUnit> extends Interval<U> {
 
 	@Override
 	ObjectNode buildIntervalNode() {
-		ObjectNode node = new ObjectMapper().createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
 
 		node.put("from", intervalUnit.buildAbsoluteNode(start));
 		node.put("to", intervalUnit.buildAbsoluteNode(end));
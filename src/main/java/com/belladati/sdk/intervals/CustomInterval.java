@@ -1,7 +1,7 @@
 package com.belladati.sdk.intervals;
 
 import com.belladati.sdk.exception.interval.NullIntervalException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -56,7 +56,7 @@ public class CustomInterval<U extends IntervalUnit> extends Interval<U> {
 
 	@Override
 	ObjectNode buildIntervalNode() {
-		ObjectNode node = new ObjectMapper().createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
 
 		node.put("from", start);
 		node.put("to", end);
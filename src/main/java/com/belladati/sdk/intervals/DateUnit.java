@@ -3,8 +3,8 @@ package com.belladati.sdk.intervals;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -16,7 +16,7 @@ public enum DateUnit implements IntervalUnit {
 	DAY {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -35,7 +35,7 @@ public enum DateUnit implements IntervalUnit {
 	WEEK {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -54,7 +54,7 @@ public enum DateUnit implements IntervalUnit {
 	MONTH {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -71,7 +71,7 @@ public enum DateUnit implements IntervalUnit {
 	QUARTER {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -88,7 +88,7 @@ public enum DateUnit implements IntervalUnit {
 	YEAR {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -1,8 +1,10 @@
 package com.belladati.sdk.intervals;
 
+import java.nio.charset.StandardCharsets;
+
 import com.belladati.sdk.exception.interval.NullIntervalException;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -17,6 +19,9 @@ public abstract class Interval<U extends IntervalUnit> {
 	/** the unit for the interval, indicating the level of detail */
 	protected final U intervalUnit;
 
+	/** lazily computed key, intervals are immutable */
+	private volatile String key;
+
 	Interval(U intervalUnit) throws NullIntervalException {
 		if (intervalUnit == null) {
 			throw new NullIntervalException(intervalUnit, "Interval unit may not be null");
@@ -42,9 +47,8 @@ public abstract class Interval<U extends IntervalUnit> {
 	 * @return a JSON representation of this interval
 	 */
 	public ObjectNode toJson() {
-		ObjectMapper mapper = new ObjectMapper();
-		ObjectNode node = mapper.createObjectNode();
-		ObjectNode unitIntervalNode = mapper.createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
+		ObjectNode unitIntervalNode = JsonSupport.createObjectNode();
 
 		node.put(intervalUnit.getUnitNodeName(), unitIntervalNode);
 		unitIntervalNode.put("interval", buildIntervalNode());
@@ -53,23 +57,52 @@ public abstract class Interval<U extends IntervalUnit> {
 		return node;
 	}
 
+	/**
+	 * Returns a string identifying this interval. Equal intervals have the same
+	 * key. The key is computed once and reused. Used by the SDK internally,
+	 * for example to detect identical requests.
+	 * 
+	 * @return a string identifying this interval
+	 */
+	public String getKey() {
+		String current = key;
+		if (current == null) {
+			current = toJson().toString();
+			key = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the {@link #getKey() key} of this interval in UTF-8, for use in
+	 * binary cache keys.
+	 * 
+	 * @return a new array holding the interval's key
+	 */
+	public byte[] getKeyBytes() {
+		return getKey().getBytes(StandardCharsets.UTF_8);
+	}
+
 	@Override
 	public String toString() {
-		return toJson().toString();
+		return getKey();
 	}
 
 	@Override
 	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
 		if (obj instanceof Interval && getClass().equals(obj.getClass())) {
 			// both are intervals of the same type
-			return toString().equals(obj.toString());
+			return getKey().equals(((Interval<?>) obj).getKey());
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return toString().hashCode();
+		return getKey().hashCode();
 	}
 
 	/**
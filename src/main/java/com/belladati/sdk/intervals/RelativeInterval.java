@@ -3,7 +3,7 @@ package com.belladati.sdk.intervals;
 import com.belladati.sdk.exception.interval.InvalidAbsoluteIntervalException;
 import com.belladati.sdk.exception.interval.InvalidRelativeIntervalException;
 import com.belladati.sdk.exception.interval.NullIntervalException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -65,7 +65,7 @@ public class RelativeInterval<U extends IntervalUnit> extends Interval<U> {
 
 	@Override
 	ObjectNode buildIntervalNode() {
-		ObjectNode node = new ObjectMapper().createObjectNode();
+		ObjectNode node = JsonSupport.createObjectNode();
 
 		node.put("from", start);
 		node.put("to", end);
@@ -3,8 +3,8 @@ package com.belladati.sdk.intervals;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 
+import com.belladati.sdk.util.JsonSupport;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -16,7 +16,7 @@ public enum TimeUnit implements IntervalUnit {
 	SECOND {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -35,7 +35,7 @@ public enum TimeUnit implements IntervalUnit {
 	MINUTE {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -52,7 +52,7 @@ public enum TimeUnit implements IntervalUnit {
 	HOUR {
 		@Override
 		public JsonNode buildAbsoluteNode(long timestamp) {
-			ObjectNode node = new ObjectMapper().createObjectNode();
+			ObjectNode node = JsonSupport.createObjectNode();
 
 			Calendar start = Calendar.getInstance();
 			start.setTimeInMillis(timestamp);
@@ -6,6 +6,7 @@ import java.util.List;
 
 import com.belladati.sdk.dataset.Attribute;
 import com.belladati.sdk.dataset.DataSetInfo;
+import com.belladati.sdk.util.CacheValidator;
 import com.belladati.sdk.util.Localizable;
 import com.belladati.sdk.util.PaginatedList;
 import com.belladati.sdk.util.Resource;
@@ -42,6 +43,17 @@ public interface Report extends Resource, Localizable {
 	 */
 	Date getLastChange();
 
+	/**
+	 * Returns a validator identifying this version of the report, used to
+	 * ask the server whether the report has changed since it was loaded.
+	 * Implementations may include the entity tag sent by the server.
+	 * 
+	 * @return a validator identifying this version of the report
+	 */
+	default CacheValidator getCacheValidator() {
+		return CacheValidator.fromLastChange(getLastChange());
+	}
+
 	/**
 	 * Returns a list of views in this report.
 	 * 
@@ -0,0 +1,155 @@
+package com.belladati.sdk.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * The outcome of loading multiple resources by ID at once. Holds the loaded
+ * resources and, separately, the exceptions of all loads that failed, so one
+ * missing resource doesn't prevent access to the others.
+ * 
+ * 
+ */
+public final class BulkResult<T> {
+
+	/** default number of resources loaded at the same time */
+	public static final int DEFAULT_PARALLELISM = 8;
+
+	private final Map<String, T> results;
+	private final Map<String, Throwable> errors;
+
+	/**
+	 * Loads all resources with the given IDs in parallel, waiting until every
+	 * load has completed or failed. Duplicate IDs are loaded once.
+	 * 
+	 * @param ids IDs of the resources to load
+	 * @param loader loads a single resource by ID
+	 * @param parallelism maximum number of loads in progress at the same time
+	 * @param executor executor running the loads
+	 * @return the loaded resources and the errors of failed loads
+	 * @throws IllegalArgumentException if parallelism &lt;= 0
+	 */
+	public static <T> BulkResult<T> load(Collection<String> ids, Function<String, T> loader, int parallelism,
+		Executor executor) throws IllegalArgumentException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		Set<String> distinct = new LinkedHashSet<String>(ids);
+		Map<String, T> loaded = new ConcurrentHashMap<String, T>();
+		Map<String, Throwable> failed = new ConcurrentHashMap<String, Throwable>();
+		Semaphore permits = new Semaphore(parallelism);
+		CountDownLatch done = new CountDownLatch(distinct.size());
+		try {
+			for (String id : distinct) {
+				permits.acquire();
+				try {
+					executor.execute(() -> {
+						try {
+							T result = loader.apply(id);
+							if (result != null) {
+								loaded.put(id, result);
+							}
+						} catch (Throwable t) {
+							failed.put(id, t);
+						} finally {
+							permits.release();
+							done.countDown();
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					failed.put(id, e);
+					permits.release();
+					done.countDown();
+				}
+			}
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (String id : distinct) {
+				if (!loaded.containsKey(id)) {
+					failed.putIfAbsent(id, e);
+				}
+			}
+		}
+		return new BulkResult<T>(distinct, loaded, failed);
+	}
+
+	private BulkResult(Set<String> ids, Map<String, T> loaded, Map<String, Throwable> failed) {
+		Map<String, T> results = new LinkedHashMap<String, T>();
+		Map<String, Throwable> errors = new LinkedHashMap<String, Throwable>();
+		for (String id : ids) {
+			if (failed.containsKey(id)) {
+				errors.put(id, failed.get(id));
+			} else if (loaded.containsKey(id)) {
+				results.put(id, loaded.get(id));
+			}
+		}
+		this.results = Collections.unmodifiableMap(results);
+		this.errors = Collections.unmodifiableMap(errors);
+	}
+
+	/**
+	 * Returns all resources that were loaded successfully, by ID, in the order
+	 * the IDs were given.
+	 * 
+	 * @return the loaded resources by ID
+	 */
+	public Map<String, T> getResults() {
+		return results;
+	}
+
+	/**
+	 * Returns the exceptions of all loads that failed, by ID, in the order the
+	 * IDs were given.
+	 * 
+	 * @return the exceptions of failed loads by ID
+	 */
+	public Map<String, Throwable> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Returns true if all resources were loaded successfully.
+	 * 
+	 * @return true if no load failed
+	 */
+	public boolean isComplete() {
+		return errors.isEmpty();
+	}
+
+	/**
+	 * Returns the resource with the given ID, rethrowing the exception if it
+	 * failed to load.
+	 * 
+	 * @param id ID of the resource
+	 * @return the resource, or null if it wasn't requested
+	 */
+	public T get(String id) {
+		Throwable error = errors.get(id);
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		}
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+		if (error != null) {
+			throw new IllegalStateException("Failed to load " + id, error);
+		}
+		return results.get(id);
+	}
+
+	@Override
+	public String toString() {
+		return "BulkResult [results=" + results.keySet() + ", errors=" + errors.keySet() + "]";
+	}
+}
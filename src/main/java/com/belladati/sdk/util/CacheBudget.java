@@ -0,0 +1,109 @@
+package com.belladati.sdk.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits the total number of elements held by a group of cached lists. When
+ * the limit is exceeded, the least recently used lists drop their content and
+ * are loaded again from the server when they are next needed.
+ * <p>
+ * Memory use is approximated by the number of list elements, which avoids
+ * measuring object sizes. Share one budget across all lists to bound the cache
+ * of a long-lived application.
+ * 
+ * 
+ */
+public final class CacheBudget {
+
+	private final long maxElements;
+
+	/** cached entries with their size, least recently used first */
+	private final LinkedHashMap<Evictable, Integer> entries = new LinkedHashMap<Evictable, Integer>(16, 0.75f, true);
+	private long totalElements;
+
+	/**
+	 * Creates a budget allowing at most the given number of elements.
+	 * 
+	 * @param maxElements the maximum number of cached elements
+	 * @throws IllegalArgumentException if maxElements &lt;= 0
+	 */
+	public CacheBudget(long maxElements) throws IllegalArgumentException {
+		if (maxElements <= 0) {
+			throw new IllegalArgumentException("Maximum number of elements must be positive, was " + maxElements);
+		}
+		this.maxElements = maxElements;
+	}
+
+	/**
+	 * Returns the maximum number of cached elements.
+	 * 
+	 * @return the maximum number of cached elements
+	 */
+	public long getMaxElements() {
+		return maxElements;
+	}
+
+	/**
+	 * Returns the number of elements currently cached.
+	 * 
+	 * @return the number of elements currently cached
+	 */
+	public synchronized long getTotalElements() {
+		return totalElements;
+	}
+
+	/**
+	 * Returns the number of lists currently holding content.
+	 * 
+	 * @return the number of lists currently holding content
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Records that an entry was used, updating its size. Evicts the least
+	 * recently used other entries while the budget is exceeded.
+	 * 
+	 * @param entry the entry that was used
+	 * @param size the entry's current number of elements
+	 */
+	synchronized void touch(Evictable entry, int size) {
+		Integer previous = entries.put(entry, size);
+		totalElements += size - (previous == null ? 0 : previous);
+		Iterator<Map.Entry<Evictable, Integer>> iterator = entries.entrySet().iterator();
+		while (totalElements > maxElements && iterator.hasNext()) {
+			Map.Entry<Evictable, Integer> eldest = iterator.next();
+			if (eldest.getKey() != entry) {
+				totalElements -= eldest.getValue();
+				iterator.remove();
+				eldest.getKey().evict();
+			}
+		}
+	}
+
+	/**
+	 * Records that an entry was used, without changing its size. Does nothing
+	 * if the entry isn't in the budget.
+	 * 
+	 * @param entry the entry that was used
+	 */
+	synchronized void access(Evictable entry) {
+		entries.get(entry);
+	}
+
+	/**
+	 * A cache entry that can drop its content.
+	 * 
+	 * 
+	 */
+	interface Evictable {
+		/**
+		 * Drops the entry's content. Called while holding the budget's lock,
+		 * must not call back into the budget.
+		 */
+		void evict();
+	}
+}
@@ -0,0 +1,209 @@
+package com.belladati.sdk.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.belladati.sdk.ExecutionPolicy;
+
+/**
+ * Determines how long an {@link ExpiringCachedList} keeps its content. A
+ * policy is immutable; each of the <code>with...</code> methods returns a new
+ * policy.
+ * <p>
+ * Content expires a fixed time after it was loaded. With refresh-ahead, content
+ * that is about to expire is reloaded in the background when it is accessed,
+ * so callers keep receiving the previous content instead of waiting for the
+ * server. A failed background refresh isn't retried until the refresh backoff
+ * has passed. Optionally, lists share a {@link CacheBudget} limiting the total
+ * number of cached elements.
+ * 
+ * 
+ */
+public final class CachePolicy {
+
+	/** default time after a failed background refresh before the next one */
+	public static final long DEFAULT_REFRESH_BACKOFF_MILLIS = 10000;
+
+	private final long timeToLiveNanos;
+	private final long refreshAheadNanos;
+	private final long refreshBackoffNanos;
+	private final CacheBudget budget;
+	private final Executor executor;
+
+	/**
+	 * Returns a policy keeping content until it is reloaded explicitly.
+	 * 
+	 * @return a policy without expiry
+	 */
+	public static CachePolicy noExpiry() {
+		return new CachePolicy(Long.MAX_VALUE, 0, TimeUnit.MILLISECONDS.toNanos(DEFAULT_REFRESH_BACKOFF_MILLIS), null, null);
+	}
+
+	/**
+	 * Returns a policy expiring content the given time after it was loaded.
+	 * 
+	 * @param timeToLive time after which content expires
+	 * @param unit unit of the time to live
+	 * @return a policy expiring content
+	 * @throws IllegalArgumentException if timeToLive &lt;= 0
+	 */
+	public static CachePolicy expireAfter(long timeToLive, TimeUnit unit) throws IllegalArgumentException {
+		if (timeToLive <= 0) {
+			throw new IllegalArgumentException("Time to live must be positive, was " + timeToLive);
+		}
+		return new CachePolicy(unit.toNanos(timeToLive), 0, TimeUnit.MILLISECONDS.toNanos(DEFAULT_REFRESH_BACKOFF_MILLIS), null,
+			null);
+	}
+
+	private CachePolicy(long timeToLiveNanos, long refreshAheadNanos, long refreshBackoffNanos, CacheBudget budget,
+		Executor executor) {
+		this.timeToLiveNanos = timeToLiveNanos;
+		this.refreshAheadNanos = refreshAheadNanos;
+		this.refreshBackoffNanos = refreshBackoffNanos;
+		this.budget = budget;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns a policy that reloads content in the background when it is
+	 * accessed within the given time before it expires.
+	 * 
+	 * @param refreshAhead time before expiry in which content is refreshed
+	 * @param unit unit of the time
+	 * @return a new policy with refresh-ahead
+	 * @throws IllegalArgumentException if refreshAhead is negative or not less
+	 *             than the time to live
+	 */
+	public CachePolicy withRefreshAhead(long refreshAhead, TimeUnit unit) throws IllegalArgumentException {
+		long nanos = unit.toNanos(refreshAhead);
+		if (nanos < 0 || nanos >= timeToLiveNanos) {
+			throw new IllegalArgumentException("Refresh-ahead time must be between 0 and the time to live, was " + refreshAhead
+				+ " " + unit);
+		}
+		return new CachePolicy(timeToLiveNanos, nanos, refreshBackoffNanos, budget, executor);
+	}
+
+	/**
+	 * Returns a policy that waits the given time after a failed background
+	 * refresh before refreshing again. Until then, lists keep serving their
+	 * previous content. Defaults to {@link #DEFAULT_REFRESH_BACKOFF_MILLIS}.
+	 * 
+	 * @param refreshBackoff time to wait after a failed refresh
+	 * @param unit unit of the time
+	 * @return a new policy with the given backoff
+	 * @throws IllegalArgumentException if refreshBackoff is negative
+	 */
+	public CachePolicy withRefreshBackoff(long refreshBackoff, TimeUnit unit) throws IllegalArgumentException {
+		if (refreshBackoff < 0) {
+			throw new IllegalArgumentException("Refresh backoff must not be negative, was " + refreshBackoff + " " + unit);
+		}
+		return new CachePolicy(timeToLiveNanos, refreshAheadNanos, unit.toNanos(refreshBackoff), budget, executor);
+	}
+
+	/**
+	 * Returns a policy that registers lists in the given budget.
+	 * 
+	 * @param budget the budget to share, or null for no limit
+	 * @return a new policy using the budget
+	 */
+	public CachePolicy withBudget(CacheBudget budget) {
+		return new CachePolicy(timeToLiveNanos, refreshAheadNanos, refreshBackoffNanos, budget, executor);
+	}
+
+	/**
+	 * Returns a policy running background refreshes on the given executor. By
+	 * default, the executor of {@link ExecutionPolicy#platformThreads()} is
+	 * used.
+	 * 
+	 * @param executor the executor for background refreshes
+	 * @return a new policy using the executor
+	 */
+	public CachePolicy withExecutor(Executor executor) {
+		return new CachePolicy(timeToLiveNanos, refreshAheadNanos, refreshBackoffNanos, budget, executor);
+	}
+
+	/**
+	 * Returns the time after which content expires.
+	 * 
+	 * @param unit the unit of the returned time
+	 * @return the time to live, or {@link Long#MAX_VALUE} if content doesn't
+	 *         expire
+	 */
+	public long getTimeToLive(TimeUnit unit) {
+		return timeToLiveNanos == Long.MAX_VALUE ? Long.MAX_VALUE : unit.convert(timeToLiveNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the time before expiry in which content is refreshed in the
+	 * background.
+	 * 
+	 * @param unit the unit of the returned time
+	 * @return the refresh-ahead time, 0 if content isn't refreshed ahead
+	 */
+	public long getRefreshAhead(TimeUnit unit) {
+		return unit.convert(refreshAheadNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the time after a failed background refresh before the next one.
+	 * 
+	 * @param unit the unit of the returned time
+	 * @return the refresh backoff
+	 */
+	public long getRefreshBackoff(TimeUnit unit) {
+		return unit.convert(refreshBackoffNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the budget shared by lists using this policy.
+	 * 
+	 * @return the shared budget, or null if there is none
+	 */
+	public CacheBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Returns the executor running background refreshes.
+	 * 
+	 * @return the executor running background refreshes
+	 */
+	public Executor getExecutor() {
+		return executor != null ? executor : ExecutionPolicy.platformThreads().getExecutor();
+	}
+
+	/**
+	 * Returns true if content loaded at the given time has expired.
+	 * 
+	 * @param loadedAt {@link System#nanoTime()} when the content was loaded
+	 * @param now the current {@link System#nanoTime()}
+	 * @return true if the content has expired
+	 */
+	boolean isExpired(long loadedAt, long now) {
+		return now - loadedAt >= timeToLiveNanos;
+	}
+
+	/**
+	 * Returns true if content loaded at the given time should be refreshed in
+	 * the background.
+	 * 
+	 * @param loadedAt {@link System#nanoTime()} when the content was loaded
+	 * @param now the current {@link System#nanoTime()}
+	 * @return true if the content should be refreshed
+	 */
+	boolean shouldRefresh(long loadedAt, long now) {
+		return refreshAheadNanos > 0 && now - loadedAt >= timeToLiveNanos - refreshAheadNanos;
+	}
+
+	/**
+	 * Returns true if a background refresh that failed at the given time may
+	 * be retried.
+	 * 
+	 * @param failedAt {@link System#nanoTime()} when the refresh failed
+	 * @param now the current {@link System#nanoTime()}
+	 * @return true if the backoff has passed
+	 */
+	boolean isBackoffOver(long failedAt, long now) {
+		return now - failedAt >= refreshBackoffNanos;
+	}
+}
@@ -0,0 +1,121 @@
+package com.belladati.sdk.util;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Identifies the version of a resource received from the server, allowing the
+ * SDK to ask the server whether the resource has changed since. A validator
+ * holds the resource's entity tag, its last modification date, or both.
+ * <p>
+ * Validators are immutable.
+ * 
+ * 
+ */
+public final class CacheValidator implements Serializable {
+
+	/** The serialVersionUID */
+	private static final long serialVersionUID = 5184375683416893409L;
+
+	private final String eTag;
+	private final Long lastModified;
+
+	/**
+	 * Creates a validator from an entity tag and a last modification date.
+	 * Either may be null.
+	 * 
+	 * @param eTag the entity tag of the resource, or null
+	 * @param lastModified the last modification date of the resource, or null
+	 * @return a new validator
+	 */
+	public static CacheValidator of(String eTag, Date lastModified) {
+		return new CacheValidator(eTag, lastModified == null ? null : lastModified.getTime());
+	}
+
+	/**
+	 * Creates a validator from a resource's last change date, as returned for
+	 * reports, data sets and dashboards.
+	 * 
+	 * @param lastChange the last change date of the resource, or null
+	 * @return a new validator
+	 */
+	public static CacheValidator fromLastChange(Date lastChange) {
+		return of(null, lastChange);
+	}
+
+	private CacheValidator(String eTag, Long lastModified) {
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Returns the entity tag of the resource.
+	 * 
+	 * @return the entity tag of the resource, or null
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Returns the last modification date of the resource.
+	 * 
+	 * @return the last modification date of the resource, or null
+	 */
+	public Date getLastModified() {
+		return lastModified == null ? null : new Date(lastModified);
+	}
+
+	/**
+	 * Returns true if this validator holds any information to validate a
+	 * resource with.
+	 * 
+	 * @return true if this validator has an entity tag or last modification
+	 *         date
+	 */
+	public boolean isPresent() {
+		return eTag != null || lastModified != null;
+	}
+
+	/**
+	 * Returns true if both validators are known to identify the same version of
+	 * a resource. Entity tags are compared if both validators have one,
+	 * otherwise last modification dates. If neither can be compared, the
+	 * versions are assumed to differ.
+	 * 
+	 * @param other the validator to compare with, may be null
+	 * @return true if both validators identify the same version
+	 */
+	public boolean matches(CacheValidator other) {
+		if (other == null) {
+			return false;
+		}
+		if (eTag != null && other.eTag != null) {
+			return eTag.equals(other.eTag);
+		}
+		if (lastModified != null && other.lastModified != null) {
+			return lastModified.equals(other.lastModified);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof CacheValidator) {
+			CacheValidator other = (CacheValidator) obj;
+			return (eTag == null ? other.eTag == null : eTag.equals(other.eTag))
+				&& (lastModified == null ? other.lastModified == null : lastModified.equals(other.lastModified));
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return (eTag == null ? 0 : eTag.hashCode()) * 31 + (lastModified == null ? 0 : lastModified.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return "CacheValidator [eTag=" + eTag + ", lastModified=" + lastModified + "]";
+	}
+}
@@ -6,6 +6,9 @@ import java.util.Collection;
  * A collection that is cached by the client. Call {@link #loadFirstTime()} to
  * initially load its contents from the server or {@link #load()} to clear the
  * cache and reload at a later time.
+ * <p>
+ * The content is kept until reloaded explicitly. Use an
+ * {@link ExpiringCachedList} to expire and refresh it automatically.
  * 
  * 
  */
@@ -43,4 +46,28 @@ public interface CachedCollection<T, C extends Collection<T>> {
 	 *         server
 	 */
 	boolean isLoaded();
+
+	/**
+	 * Returns a validator identifying the version of the content last loaded
+	 * from the server, if the server provided one.
+	 * 
+	 * @return a validator for the loaded content, or null if none is known
+	 */
+	default CacheValidator getCacheValidator() {
+		return null;
+	}
+
+	/**
+	 * Reloads the content of this collection from the server if it has changed
+	 * since it was last loaded, keeping the current content otherwise.
+	 * <p>
+	 * Implementations knowing the content's {@link #getCacheValidator()
+	 * validator} send a conditional request, so unchanged content is neither
+	 * transferred nor parsed again. By default, the content is reloaded.
+	 * 
+	 * @return this collection (for chaining)
+	 */
+	default CachedCollection<T, C> revalidate() {
+		return load();
+	}
 }
@@ -1,6 +1,8 @@
 package com.belladati.sdk.util;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * A list that is cached by the client, a special case of a
@@ -19,6 +21,23 @@ public interface CachedList<T> extends CachedCollection<T, List<T>> {
 	@Override
 	CachedList<T> load();
 
+	/**
+	 * Clears and loads the content of this list from the server on the given
+	 * executor. Behaves like {@link #load()}, but doesn't block the calling
+	 * thread.
+	 * <p>
+	 * Pass the executor of the service's
+	 * {@link com.belladati.sdk.ExecutionPolicy} to load on the threads
+	 * configured for the connection. The request waits for the connection's
+	 * request limit on any executor.
+	 * 
+	 * @param executor executor on which to load the list
+	 * @return a future completing with this list once it is loaded
+	 */
+	default CompletableFuture<CachedList<T>> loadAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::load, executor);
+	}
+
 	/**
 	 * Loads the content of this list from the server if it hasn't been loaded
 	 * before. Calling this method is equivalent to:
@@ -30,6 +49,17 @@ public interface CachedList<T> extends CachedCollection<T, List<T>> {
 	@Override
 	CachedList<T> loadFirstTime();
 
+	/**
+	 * Reloads the content of this list from the server if it has changed since
+	 * it was last loaded, keeping the current content otherwise.
+	 * 
+	 * @return this list (for chaining)
+	 */
+	@Override
+	default CachedList<T> revalidate() {
+		return load();
+	}
+
 	/**
 	 * Synonymous to {@link #get()}, returns this CachedList's contents as an
 	 * immutable List.
@@ -0,0 +1,436 @@
+package com.belladati.sdk.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A size-limited cache of binary content stored in a directory, surviving
+ * restarts of the application. Each entry is identified by a key, such as a
+ * resource ID, and a version, typically the resource's last change time in
+ * milliseconds. An entry is only returned for the version it was stored with,
+ * so content of a resource that has since changed is never served.
+ * <p>
+ * Entries are stored in separate files, tracked by an index file that is
+ * mapped into memory: looking up an entry doesn't touch the disk, and updates
+ * to the index are written by the operating system. Entry files are read
+ * without holding the cache's lock, so reading a large entry doesn't delay
+ * other threads. When the cache exceeds its size limit, the entries used
+ * least recently are removed first.
+ * <p>
+ * Use the cache to keep server responses such as thumbnails or JSON payloads
+ * between restarts, for example with {@link #getOrLoad(String, long, Supplier)}.
+ * A directory must only be used by one cache at a time. Instances are
+ * thread-safe.
+ * 
+ * 
+ */
+public final class DiskCache implements Closeable {
+
+	/** maximum length of a key in UTF-8 bytes */
+	public static final int MAX_KEY_BYTES = 200;
+
+	private static final String INDEX_FILE = "index.bin";
+	private static final String DATA_SUFFIX = ".dat";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private static final int MAGIC = 0x42444331;
+	private static final int FORMAT_VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** key length, key bytes, version, size, last access, file ID */
+	private static final int RECORD_SIZE = 4 + MAX_KEY_BYTES + 8 + 8 + 8 + 8;
+
+	private final Path directory;
+	private final long maxBytes;
+	private final FileChannel indexChannel;
+	private MappedByteBuffer index;
+	private int capacity;
+
+	/** entries in access order, least recently used first */
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private final Deque<Integer> freeSlots = new ArrayDeque<Integer>();
+	private long totalBytes;
+	private long nextFileId;
+	private boolean closed;
+
+	/**
+	 * Opens the cache stored in the given directory, creating it if necessary.
+	 * Entries stored by an earlier instance are kept as far as they fit into
+	 * the given size.
+	 * 
+	 * @param directory directory holding the cache
+	 * @param maxBytes maximum total size of the cached content
+	 * @return the opened cache
+	 * @throws IOException if the directory or index cannot be accessed
+	 * @throws IllegalArgumentException if maxBytes &lt;= 0
+	 */
+	public static DiskCache open(Path directory, long maxBytes) throws IOException, IllegalArgumentException {
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive, was " + maxBytes);
+		}
+		Files.createDirectories(directory);
+		return new DiskCache(directory, maxBytes);
+	}
+
+	private DiskCache(Path directory, long maxBytes) throws IOException {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+			StandardOpenOption.WRITE);
+		try {
+			readIndex();
+			deleteUnreferencedFiles();
+			evict();
+		} catch (IOException | RuntimeException e) {
+			indexChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the content stored for the given key and version.
+	 * 
+	 * @param key the entry's key
+	 * @param version the expected version of the entry
+	 * @return the stored content, or null if there is no entry for this
+	 *         version
+	 */
+	public byte[] get(String key, long version) {
+		Entry entry;
+		synchronized (this) {
+			assertOpen();
+			entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.version != version) {
+				// the resource has changed, the entry won't be used again
+				removeEntry(key, entry);
+				return null;
+			}
+			entry.lastAccess = System.currentTimeMillis();
+			index.putLong(recordOffset(entry.slot) + 4 + MAX_KEY_BYTES + 16, entry.lastAccess);
+		}
+		// file IDs aren't reused and files are written completely before they
+		// are added, so the file holds this entry's content or doesn't exist
+		try {
+			return Files.readAllBytes(dataFile(entry.fileId));
+		} catch (IOException e) {
+			synchronized (this) {
+				// the entry may have been replaced or removed in the meantime
+				if (!closed && entries.get(key) == entry) {
+					removeEntry(key, entry);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Stores content for the given key and version, replacing any content
+	 * stored for the key before. Content larger than the cache is not stored.
+	 * 
+	 * @param key the entry's key
+	 * @param version the entry's version
+	 * @param content the content to store
+	 * @throws IllegalArgumentException if the key is longer than
+	 *             {@link #MAX_KEY_BYTES} in UTF-8
+	 * @throws UncheckedIOException if the content cannot be written
+	 */
+	public synchronized void put(String key, long version, byte[] content) throws IllegalArgumentException,
+		UncheckedIOException {
+		assertOpen();
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		if (keyBytes.length == 0 || keyBytes.length > MAX_KEY_BYTES) {
+			throw new IllegalArgumentException("Key must have between 1 and " + MAX_KEY_BYTES + " bytes: " + key);
+		}
+		Entry previous = entries.get(key);
+		if (previous != null) {
+			removeEntry(key, previous);
+		}
+		if (content.length > maxBytes) {
+			return;
+		}
+		try {
+			long fileId = nextFileId++;
+			Path temp = directory.resolve(fileId + TEMP_SUFFIX);
+			Files.write(temp, content);
+			Files.move(temp, dataFile(fileId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+			Entry entry = new Entry(allocateSlot(), version, content.length, System.currentTimeMillis(), fileId);
+			writeRecord(entry, keyBytes);
+			entries.put(key, entry);
+			totalBytes += entry.size;
+			evict();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write cache entry " + key, e);
+		}
+	}
+
+	/**
+	 * Returns the content stored for the given key and version, loading and
+	 * storing it if there is none.
+	 * 
+	 * @param key the entry's key
+	 * @param version the expected version of the entry
+	 * @param loader loads the content if it isn't cached
+	 * @return the cached or loaded content
+	 */
+	public byte[] getOrLoad(String key, long version, Supplier<byte[]> loader) {
+		byte[] content = get(key, version);
+		if (content == null) {
+			content = loader.get();
+			put(key, version, content);
+		}
+		return content;
+	}
+
+	/**
+	 * Removes the entry for the given key, if any.
+	 * 
+	 * @param key the entry's key
+	 */
+	public synchronized void remove(String key) {
+		assertOpen();
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			removeEntry(key, entry);
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		assertOpen();
+		for (Map.Entry<String, Entry> entry : new ArrayList<Map.Entry<String, Entry>>(entries.entrySet())) {
+			removeEntry(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Returns the total size of the cached content.
+	 * 
+	 * @return the total size of the cached content in bytes
+	 */
+	public synchronized long getSize() {
+		return totalBytes;
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 * 
+	 * @return the number of cached entries
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Writes all changes to the index to disk and closes the cache.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			index.force();
+			indexChannel.close();
+		}
+	}
+
+	/**
+	 * Maps the index file and reads all valid entries from it. Initializes a
+	 * new index if the file is empty or not a valid index.
+	 */
+	private void readIndex() throws IOException {
+		boolean valid = false;
+		if (indexChannel.size() >= HEADER_SIZE) {
+			MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			int storedCapacity = header.getInt(8);
+			valid = header.getInt(0) == MAGIC && header.getInt(4) == FORMAT_VERSION && storedCapacity > 0
+				&& indexChannel.size() >= HEADER_SIZE + (long) storedCapacity * RECORD_SIZE;
+			capacity = storedCapacity;
+		}
+		if (!valid) {
+			capacity = INITIAL_CAPACITY;
+			indexChannel.truncate(0);
+		}
+		index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+		if (!valid) {
+			index.putInt(0, MAGIC);
+			index.putInt(4, FORMAT_VERSION);
+			index.putInt(8, capacity);
+			for (int slot = capacity - 1; slot >= 0; slot--) {
+				freeSlots.push(slot);
+			}
+			return;
+		}
+		Map<String, Entry> found = new LinkedHashMap<String, Entry>();
+		for (int slot = 0; slot < capacity; slot++) {
+			int offset = recordOffset(slot);
+			int keyLength = index.getInt(offset);
+			if (keyLength <= 0 || keyLength > MAX_KEY_BYTES) {
+				freeSlot(slot);
+				continue;
+			}
+			byte[] keyBytes = new byte[keyLength];
+			index.get(offset + 4, keyBytes);
+			int fields = offset + 4 + MAX_KEY_BYTES;
+			Entry entry = new Entry(slot, index.getLong(fields), index.getLong(fields + 8), index.getLong(fields + 16),
+				index.getLong(fields + 24));
+			String key = new String(keyBytes, StandardCharsets.UTF_8);
+			Path file = dataFile(entry.fileId);
+			if (found.containsKey(key) || !Files.isRegularFile(file) || Files.size(file) != entry.size) {
+				// incomplete or duplicate entry, e.g. after a crash
+				freeSlot(slot);
+				continue;
+			}
+			found.put(key, entry);
+			totalBytes += entry.size;
+			nextFileId = Math.max(nextFileId, entry.fileId + 1);
+		}
+		// restore the access order recorded in the index
+		List<Map.Entry<String, Entry>> ordered = new ArrayList<Map.Entry<String, Entry>>(found.entrySet());
+		ordered.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+		for (Map.Entry<String, Entry> entry : ordered) {
+			entries.put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Deletes files in the directory that don't belong to any entry.
+	 */
+	private void deleteUnreferencedFiles() throws IOException {
+		Set<String> referenced = new HashSet<String>();
+		for (Entry entry : entries.values()) {
+			referenced.add(entry.fileId + DATA_SUFFIX);
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + DATA_SUFFIX + "," + TEMP_SUFFIX + "}")) {
+			for (Path file : files) {
+				if (!referenced.contains(file.getFileName().toString())) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the least recently used entries until the cache fits its size.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (totalBytes > maxBytes && iterator.hasNext()) {
+			Entry oldest = iterator.next().getValue();
+			iterator.remove();
+			deleteEntry(oldest);
+		}
+	}
+
+	private void removeEntry(String key, Entry entry) {
+		entries.remove(key);
+		deleteEntry(entry);
+	}
+
+	/**
+	 * Releases the slot and file of an entry that is no longer in the map.
+	 */
+	private void deleteEntry(Entry entry) {
+		totalBytes -= entry.size;
+		freeSlot(entry.slot);
+		try {
+			Files.deleteIfExists(dataFile(entry.fileId));
+		} catch (IOException e) {
+			// deleted when the cache is next opened
+		}
+	}
+
+	private void freeSlot(int slot) {
+		index.putInt(recordOffset(slot), 0);
+		freeSlots.push(slot);
+	}
+
+	/**
+	 * Returns a free slot in the index, growing the index file if necessary.
+	 */
+	private int allocateSlot() throws IOException {
+		if (freeSlots.isEmpty()) {
+			int newCapacity = capacity * 2;
+			index.force();
+			index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+			for (int slot = newCapacity - 1; slot >= capacity; slot--) {
+				freeSlots.push(slot);
+			}
+			capacity = newCapacity;
+			index.putInt(8, capacity);
+		}
+		return freeSlots.pop();
+	}
+
+	private void writeRecord(Entry entry, byte[] keyBytes) {
+		int offset = recordOffset(entry.slot);
+		index.put(offset + 4, keyBytes);
+		int fields = offset + 4 + MAX_KEY_BYTES;
+		index.putLong(fields, entry.version);
+		index.putLong(fields + 8, entry.size);
+		index.putLong(fields + 16, entry.lastAccess);
+		index.putLong(fields + 24, entry.fileId);
+		// written last, marks the record as complete
+		index.putInt(offset, keyBytes.length);
+	}
+
+	private int recordOffset(int slot) {
+		return HEADER_SIZE + slot * RECORD_SIZE;
+	}
+
+	private Path dataFile(long fileId) {
+		return directory.resolve(fileId + DATA_SUFFIX);
+	}
+
+	private void assertOpen() throws IllegalStateException {
+		if (closed) {
+			throw new IllegalStateException("Cache has been closed");
+		}
+	}
+
+	/**
+	 * A cached entry as recorded in the index.
+	 * 
+	 * 
+	 */
+	private static class Entry {
+		private final int slot;
+		private final long version;
+		private final long size;
+		private long lastAccess;
+		private final long fileId;
+
+		private Entry(int slot, long version, long size, long lastAccess, long fileId) {
+			this.slot = slot;
+			this.version = version;
+			this.size = size;
+			this.lastAccess = lastAccess;
+			this.fileId = fileId;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package com.belladati.sdk.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A {@link CachedList} whose content expires according to a
+ * {@link CachePolicy}. Content is loaded through lists obtained from a
+ * supplier, typically a method of {@link com.belladati.sdk.BellaDatiService}:
+ * 
+ * <pre>
+ * CachedList&lt;AttributeValue&gt; values = new ExpiringCachedList&lt;AttributeValue&gt;(
+ * 	() -&gt; service.getAttributeValues(dataSetId, attributeCode),
+ * 	CachePolicy.expireAfter(10, TimeUnit.MINUTES).withRefreshAhead(1, TimeUnit.MINUTES));
+ * </pre>
+ * 
+ * Once the content has expired or was evicted from the policy's
+ * {@link CacheBudget}, {@link #isLoaded()} returns false and
+ * {@link #loadFirstTime()} loads it again. {@link #get()} never blocks: it
+ * returns the current content, triggering a background refresh if the content
+ * is about to expire, and an empty list if no content is held.
+ * <p>
+ * If a background refresh fails, the previous content is kept and no further
+ * refresh is started until the policy's
+ * {@link CachePolicy#withRefreshBackoff(long, java.util.concurrent.TimeUnit)
+ * refresh backoff} has passed. The failure is available from
+ * {@link #getRefreshFailure()} until the content is loaded successfully.
+ * <p>
+ * Instances are thread-safe.
+ * 
+ * 
+ */
+public class ExpiringCachedList<T> implements CachedList<T> {
+
+	private final Supplier<? extends CachedList<T>> source;
+	private final CachePolicy policy;
+
+	private volatile List<T> content;
+	private volatile long loadedAt;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	/** cause of the most recent failed refresh, null after a successful load */
+	private volatile RuntimeException refreshFailure;
+	private volatile long failedAt;
+
+	/** this list's entry in the budget, dropping the content when evicted */
+	private final CacheBudget.Evictable budgetEntry = () -> content = null;
+
+	/**
+	 * Creates a list loading its content from lists obtained from the given
+	 * supplier. The supplier is called on every load; lists it returns are
+	 * discarded after their content has been read.
+	 * 
+	 * @param source supplies a list to load the content from
+	 * @param policy determines when the content expires
+	 */
+	public ExpiringCachedList(Supplier<? extends CachedList<T>> source, CachePolicy policy) {
+		this.source = source;
+		this.policy = policy;
+	}
+
+	/**
+	 * Returns the current content of this list without loading it. Triggers a
+	 * background refresh if the content is about to expire or has expired.
+	 * 
+	 * @return the current content, or an empty list if no content is held
+	 */
+	@Override
+	public List<T> get() {
+		List<T> current = content;
+		if (current == null) {
+			return Collections.emptyList();
+		}
+		accessed(System.nanoTime());
+		return current;
+	}
+
+	@Override
+	public List<T> toList() {
+		return get();
+	}
+
+	@Override
+	public synchronized ExpiringCachedList<T> load() {
+		CachedList<T> list = source.get();
+		list.load();
+		List<T> loaded = Collections.unmodifiableList(list.toList());
+		content = loaded;
+		loadedAt = System.nanoTime();
+		refreshFailure = null;
+		CacheBudget budget = policy.getBudget();
+		if (budget != null) {
+			budget.touch(budgetEntry, loaded.size());
+		}
+		return this;
+	}
+
+	/**
+	 * Loads the content of this list if no content is held or the content
+	 * has expired. Triggers a background refresh if the content is about to
+	 * expire.
+	 * 
+	 * @return this list (for chaining)
+	 */
+	@Override
+	public ExpiringCachedList<T> loadFirstTime() {
+		long now = System.nanoTime();
+		if (content == null || policy.isExpired(loadedAt, now)) {
+			synchronized (this) {
+				// another thread may have loaded while we were waiting
+				if (content == null || policy.isExpired(loadedAt, System.nanoTime())) {
+					return load();
+				}
+			}
+		}
+		accessed(now);
+		return this;
+	}
+
+	/**
+	 * Returns true if this list holds content that hasn't expired.
+	 * 
+	 * @return true if this list holds content that hasn't expired
+	 */
+	@Override
+	public boolean isLoaded() {
+		return content != null && !policy.isExpired(loadedAt, System.nanoTime());
+	}
+
+	/**
+	 * Returns the cause of the most recent failed background refresh, if the
+	 * content hasn't been loaded successfully since.
+	 * 
+	 * @return the cause of the failed refresh, or null if there is none
+	 */
+	public RuntimeException getRefreshFailure() {
+		return refreshFailure;
+	}
+
+	/**
+	 * Returns the policy determining when this list's content expires.
+	 * 
+	 * @return the policy of this list
+	 */
+	public CachePolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Records an access to the content, refreshing it in the background if
+	 * it is about to expire and no refresh has failed within the backoff.
+	 * 
+	 * @param now the current {@link System#nanoTime()}
+	 */
+	private void accessed(long now) {
+		CacheBudget budget = policy.getBudget();
+		if (budget != null) {
+			budget.access(budgetEntry);
+		}
+		long loaded = loadedAt;
+		if ((policy.shouldRefresh(loaded, now) || policy.isExpired(loaded, now))
+			&& (refreshFailure == null || policy.isBackoffOver(failedAt, now)) && refreshing.compareAndSet(false, true)) {
+			try {
+				policy.getExecutor().execute(this::refresh);
+			} catch (RejectedExecutionException e) {
+				refreshing.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Reloads the content in the background. If loading fails, the previous
+	 * content is kept until it expires, and the failure is recorded.
+	 */
+	private void refresh() {
+		try {
+			load();
+		} catch (RuntimeException e) {
+			// keep serving the previous content
+			failedAt = System.nanoTime();
+			refreshFailure = e;
+		} finally {
+			refreshing.set(false);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.belladati.sdk.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Provides the JSON infrastructure shared by all classes in the SDK that
+ * convert themselves to JSON. Creating an {@link ObjectMapper} is expensive,
+ * so a single instance is configured once and shared; it is thread-safe once
+ * configured and never reconfigured afterwards.
+ * <p>
+ * Used by the SDK internally.
+ * 
+ * 
+ */
+public final class JsonSupport {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final JsonNodeFactory NODES = MAPPER.getNodeFactory();
+
+	private JsonSupport() {
+		// static helpers only
+	}
+
+	/**
+	 * Creates a new, empty JSON object.
+	 * 
+	 * @return a new, empty JSON object
+	 */
+	public static ObjectNode createObjectNode() {
+		return NODES.objectNode();
+	}
+
+	/**
+	 * Creates a new, empty JSON array.
+	 * 
+	 * @return a new, empty JSON array
+	 */
+	public static ArrayNode createArrayNode() {
+		return NODES.arrayNode();
+	}
+
+	/**
+	 * Creates a generator writing to the given stream. Closing the generator
+	 * flushes, but doesn't close, the stream.
+	 * 
+	 * @param out the stream to write to
+	 * @return a generator writing to the stream
+	 * @throws IOException if the generator cannot be created
+	 */
+	public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+		JsonGenerator generator = MAPPER.getFactory().createGenerator(out);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		return generator;
+	}
+
+	/**
+	 * Writes the given JSON tree to a generator. Works with any generator,
+	 * including generators not created by {@link #createGenerator(OutputStream)}.
+	 * 
+	 * @param generator the generator to write to
+	 * @param node the tree to write
+	 * @throws IOException if writing to the generator fails
+	 */
+	public static void writeTree(JsonGenerator generator, JsonNode node) throws IOException {
+		MAPPER.writeTree(generator, node);
+	}
+
+	/**
+	 * Creates a streaming parser reading from the given stream. Closing the
+	 * parser doesn't close the stream.
+	 * 
+	 * @param in the stream to read from
+	 * @return a parser reading from the stream
+	 * @throws IOException if the parser cannot be created
+	 */
+	public static JsonParser createParser(InputStream in) throws IOException {
+		JsonParser parser = MAPPER.getFactory().createParser(in);
+		parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+		return parser;
+	}
+
+	/**
+	 * Creates a streaming parser reading the given JSON tree, allowing code
+	 * written for streaming input to process trees as well.
+	 * 
+	 * @param node the tree to read
+	 * @return a parser reading the tree
+	 */
+	public static JsonParser createParser(JsonNode node) {
+		return MAPPER.treeAsTokens(node);
+	}
+}
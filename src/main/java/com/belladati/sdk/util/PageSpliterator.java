@@ -0,0 +1,186 @@
+package com.belladati.sdk.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator walking all pages of a {@link PaginatedList}. Pages are loaded by
+ * a background task on a given executor while the consumer processes the
+ * elements already received. At most a fixed number of loaded pages is
+ * buffered, so the loader waits whenever the consumer falls behind.
+ * <p>
+ * Only the background task accesses the list. The consumer receives a copy of
+ * each page's elements, and the list itself keeps only the page most recently
+ * loaded, so memory use doesn't grow with the size of the list.
+ * <p>
+ * The background task refers to the spliterator only weakly. If the stream is
+ * dropped without being closed, the task stops once the spliterator has been
+ * garbage collected instead of waiting for a consumer forever.
+ * 
+ * 
+ */
+final class PageSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+	/** marks the end of the list in the page buffer */
+	private static final Object END = new Object();
+
+	/** interval in which a blocked loader checks whether the consumer is gone */
+	private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+	private final Executor executor;
+	private final Loader<T> loader;
+
+	/** consumer state, only accessed from the consuming thread */
+	private boolean started;
+	private boolean finished;
+	private Iterator<T> current = Collections.emptyIterator();
+
+	PageSpliterator(PaginatedList<T> list, int prefetchPages, Executor executor) throws IllegalArgumentException {
+		super(Long.MAX_VALUE, ORDERED);
+		if (prefetchPages <= 0) {
+			throw new IllegalArgumentException("Number of prefetched pages must be positive, was " + prefetchPages);
+		}
+		this.executor = executor;
+		this.loader = new Loader<T>(list, new ArrayBlockingQueue<Object>(prefetchPages), this);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (!started) {
+			started = true;
+			executor.execute(loader);
+		}
+		while (!current.hasNext()) {
+			if (finished) {
+				return false;
+			}
+			Object next = takePage();
+			if (next == END) {
+				finished = true;
+				return false;
+			}
+			if (next instanceof Failure) {
+				finished = true;
+				((Failure) next).rethrow();
+			}
+			@SuppressWarnings("unchecked")
+			List<T> page = (List<T>) next;
+			current = page.iterator();
+		}
+		action.accept(current.next());
+		return true;
+	}
+
+	/**
+	 * Stops loading further pages and discards buffered pages. Called when the
+	 * stream is closed.
+	 */
+	void cancel() {
+		loader.cancelled = true;
+		finished = true;
+		loader.pages.clear();
+	}
+
+	/**
+	 * Takes the next page from the buffer, waiting until it is loaded.
+	 * 
+	 * @return the next page, {@link #END} or a {@link Failure}
+	 */
+	private Object takePage() {
+		try {
+			return loader.pages.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel();
+			throw new IllegalStateException("Interrupted while waiting for the next page", e);
+		}
+	}
+
+	/**
+	 * Loads pages from the list until the last page is reached, the consumer
+	 * cancels or goes away, or loading fails. Doesn't refer to the spliterator
+	 * strongly, so a dropped spliterator can be garbage collected.
+	 * 
+	 * 
+	 */
+	private static final class Loader<T> implements Runnable {
+		private final PaginatedList<T> list;
+		private final BlockingQueue<Object> pages;
+		private final WeakReference<PageSpliterator<T>> consumer;
+
+		private volatile boolean cancelled;
+
+		private Loader(PaginatedList<T> list, BlockingQueue<Object> pages, PageSpliterator<T> consumer) {
+			this.list = list;
+			this.pages = pages;
+			this.consumer = new WeakReference<PageSpliterator<T>>(consumer);
+		}
+
+		@Override
+		public void run() {
+			try {
+				PageWalker<T> walker = new PageWalker<T>(list, 1);
+				List<T> page;
+				while (!cancelled && (page = walker.nextPage()) != null) {
+					if (!putPage(page)) {
+						return;
+					}
+				}
+				putPage(END);
+			} catch (Throwable t) {
+				putPage(new Failure(t));
+			}
+		}
+
+		/**
+		 * Adds a page to the buffer, waiting while the buffer is full.
+		 * 
+		 * @param page the page to add
+		 * @return true if the page was added, false if the consumer
+		 *         cancelled or went away while waiting
+		 */
+		private boolean putPage(Object page) {
+			try {
+				while (!cancelled && consumer.get() != null) {
+					if (pages.offer(page, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Carries an exception thrown while loading to the consumer.
+	 * 
+	 * 
+	 */
+	private static class Failure {
+		private final Throwable cause;
+
+		private Failure(Throwable cause) {
+			this.cause = cause;
+		}
+
+		private void rethrow() {
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Failed to load page", cause);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.belladati.sdk.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks forward through the pages of a {@link PaginatedList}, keeping at most a
+ * fixed number of pages loaded in the list. Once that number is reached, the
+ * next page is loaded using {@link PaginatedList#load(int, int)}, which
+ * discards all previously loaded pages from the list.
+ * <p>
+ * Each call to {@link #nextPage()} returns a copy of the next page's elements,
+ * so callers don't need to access the list themselves.
+ * 
+ * 
+ */
+final class PageWalker<T> {
+
+	private final PaginatedList<T> list;
+	private final int residentPages;
+
+	private boolean started;
+	private int pageSize;
+	private int loadedPages;
+	private int nextIndex;
+
+	PageWalker(PaginatedList<T> list, int residentPages) throws IllegalArgumentException {
+		if (residentPages <= 0) {
+			throw new IllegalArgumentException("Number of resident pages must be positive, was " + residentPages);
+		}
+		this.list = list;
+		this.residentPages = residentPages;
+	}
+
+	/**
+	 * Loads the next page and returns its elements. The first call reloads the
+	 * list from its first page, using the current page size if the list has
+	 * already been loaded.
+	 * 
+	 * @return the elements of the next page, or null if there are no
+	 *         more elements
+	 */
+	List<T> nextPage() {
+		if (!started) {
+			started = true;
+			if (list.isLoaded()) {
+				list.load(list.getPageSize());
+			} else {
+				list.load();
+			}
+			pageSize = list.getPageSize();
+			loadedPages = 1;
+			nextIndex = Math.max(list.getFirstLoadedIndex(), 0);
+		} else {
+			if (!list.hasNextPage()) {
+				return null;
+			}
+			if (loadedPages >= residentPages) {
+				list.load(list.getLastLoadedPage() + 1, pageSize);
+				loadedPages = 1;
+			} else {
+				list.loadNext();
+				loadedPages++;
+			}
+		}
+		int last = list.getLastLoadedIndex();
+		if (last < nextIndex) {
+			// the server returned an empty page
+			return null;
+		}
+		List<T> page = new ArrayList<T>(last - nextIndex + 1);
+		for (int i = nextIndex; i <= last; i++) {
+			page.add(list.get(i));
+		}
+		nextIndex = last + 1;
+		return page;
+	}
+}
@@ -0,0 +1,46 @@
+package com.belladati.sdk.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only iterator over all elements of a {@link PaginatedList} that keeps
+ * only a limited number of pages loaded. Pages are loaded on demand on the
+ * iterating thread.
+ * 
+ * 
+ */
+final class PageWindowIterator<T> implements Iterator<T> {
+
+	private final PageWalker<T> walker;
+
+	private Iterator<T> current = Collections.emptyIterator();
+	private boolean finished;
+
+	PageWindowIterator(PaginatedList<T> list, int residentPages) throws IllegalArgumentException {
+		this.walker = new PageWalker<T>(list, residentPages);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!current.hasNext() && !finished) {
+			List<T> page = walker.nextPage();
+			if (page == null) {
+				finished = true;
+			} else {
+				current = page.iterator();
+			}
+		}
+		return current.hasNext();
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return current.next();
+	}
+}
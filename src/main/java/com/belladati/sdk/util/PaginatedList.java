@@ -1,6 +1,12 @@
 package com.belladati.sdk.util;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.belladati.sdk.ExecutionPolicy;
 
 /**
  * A list of elements that is returned by the server in paginated form. With
@@ -10,6 +16,10 @@ import java.util.List;
  * <p>
  * To directly load a page other than the first or to specify the page size, use
  * the overloaded forms {@link #load(int)} and {@link #load(int, int)}.
+ * <p>
+ * Loaded pages accumulate in the list. To walk through large lists in constant
+ * memory, use {@link #windowed(int)} or {@link #stream()}, which keep only a
+ * limited number of pages loaded.
  * 
  * 
  */
@@ -61,6 +71,110 @@ public interface PaginatedList<T> extends Iterable<T> {
 	 */
 	PaginatedList<T> loadNext();
 
+	/**
+	 * Loads the next page of data from BellaDati on the given executor. Behaves
+	 * like {@link #loadNext()}, but doesn't block the calling thread.
+	 * <p>
+	 * Pass the executor of the service's
+	 * {@link com.belladati.sdk.ExecutionPolicy} to load pages on the threads
+	 * configured for the connection. Requests wait for the connection's
+	 * request limit on any executor.
+	 * 
+	 * @param executor executor on which to load the page
+	 * @return a future completing with this list once the page is loaded
+	 */
+	default CompletableFuture<PaginatedList<T>> loadNextAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::loadNext, executor);
+	}
+
+	/**
+	 * Returns a sequential stream over all elements of this list, prefetching
+	 * up to 2 pages in the background. Equivalent to calling
+	 * {@link #stream(int)} with a value of 2.
+	 * 
+	 * @return a stream over all elements of this list
+	 * @see #stream(int, Executor)
+	 */
+	default Stream<T> stream() {
+		return stream(2);
+	}
+
+	/**
+	 * Returns a sequential stream over all elements of this list, prefetching
+	 * up to the given number of pages in the background on the executor of
+	 * this list's {@link #getExecutionPolicy() execution policy}.
+	 * 
+	 * @param prefetchPages maximum number of pages loaded ahead of the
+	 *            consumer
+	 * @return a stream over all elements of this list
+	 * @throws IllegalArgumentException if prefetchPages &lt;= 0
+	 * @see #stream(int, Executor)
+	 */
+	default Stream<T> stream(int prefetchPages) throws IllegalArgumentException {
+		return stream(prefetchPages, getExecutionPolicy().getExecutor());
+	}
+
+	/**
+	 * Returns a sequential stream over all elements of this list. While the
+	 * stream's consumer processes a page, the following pages are loaded by a
+	 * task on the given executor, overlapping network latency with processing.
+	 * At most prefetchPages loaded pages are buffered ahead of the consumer.
+	 * <p>
+	 * When the stream starts, this list is reloaded from its first page, using
+	 * the current page size if the list has already been loaded. Each further
+	 * page is loaded using {@link #load(int, int)}, so the list only holds the
+	 * page most recently loaded. The list must not be used by other threads
+	 * until the stream has ended.
+	 * <p>
+	 * Close the stream if it isn't consumed completely, e.g. using
+	 * try-with-resources, to stop loading further pages. A stream that is
+	 * dropped without being closed keeps its loading task waiting until the
+	 * stream has been garbage collected.
+	 * 
+	 * @param prefetchPages maximum number of pages loaded ahead of the
+	 *            consumer
+	 * @param executor executor on which to load pages
+	 * @return a stream over all elements of this list
+	 * @throws IllegalArgumentException if prefetchPages &lt;= 0
+	 */
+	default Stream<T> stream(int prefetchPages, Executor executor) throws IllegalArgumentException {
+		PageSpliterator<T> spliterator = new PageSpliterator<T>(this, prefetchPages, executor);
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+	}
+
+	/**
+	 * Returns a forward-only view over all elements of this list that keeps at
+	 * most the given number of pages loaded. Pages are loaded on demand while
+	 * iterating. Once residentPages pages are loaded, the next page is loaded
+	 * using {@link #load(int, int)}, evicting the pages already consumed.
+	 * <p>
+	 * Each call to {@link Iterable#iterator()} on the returned view reloads
+	 * this list from its first page, using the current page size if the list
+	 * has already been loaded. While iterating, {@link #get(int)} and the other
+	 * accessors of this list reflect only the resident pages.
+	 * 
+	 * @param residentPages maximum number of pages kept loaded in this list
+	 * @return a forward-only view over all elements of this list
+	 * @throws IllegalArgumentException if residentPages &lt;= 0
+	 */
+	default Iterable<T> windowed(int residentPages) throws IllegalArgumentException {
+		if (residentPages <= 0) {
+			throw new IllegalArgumentException("Number of resident pages must be positive, was " + residentPages);
+		}
+		return () -> new PageWindowIterator<T>(this, residentPages);
+	}
+
+	/**
+	 * Returns the policy determining how pages of this list are loaded in the
+	 * background. This is the policy of the service the list was obtained
+	 * from.
+	 * 
+	 * @return the execution policy of this list
+	 */
+	default ExecutionPolicy getExecutionPolicy() {
+		return ExecutionPolicy.platformThreads();
+	}
+
 	/**
 	 * Returns true if this list has been loaded, i.e. any of the load
 	 * methods has been called at least once.
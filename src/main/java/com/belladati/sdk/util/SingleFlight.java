@@ -0,0 +1,77 @@
+package com.belladati.sdk.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Ensures that only one call per key is in progress at a time. Threads calling
+ * {@link #execute(Object, Supplier)} with a key for which a call is already in
+ * progress wait for that call and receive its result, or its exception,
+ * instead of making their own call.
+ * <p>
+ * Results are not cached: once a call completes, the next call with the same
+ * key runs again. A call must not execute another call with its own key on the
+ * same instance, as it would wait for itself.
+ * 
+ * 
+ */
+public final class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<K, CompletableFuture<V>>();
+
+	/**
+	 * Runs the given call, or waits for the call in progress with the same key
+	 * and returns its result.
+	 * 
+	 * @param key identifies the call
+	 * @param call the call to make if none is in progress
+	 * @return the call's result
+	 */
+	public V execute(K key, Supplier<V> call) {
+		CompletableFuture<V> own = new CompletableFuture<V>();
+		CompletableFuture<V> running = calls.putIfAbsent(key, own);
+		if (running != null) {
+			return await(running);
+		}
+		try {
+			V result = call.get();
+			own.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			calls.remove(key, own);
+		}
+	}
+
+	/**
+	 * Returns the number of calls currently in progress.
+	 * 
+	 * @return the number of calls currently in progress
+	 */
+	public int getCallsInProgress() {
+		return calls.size();
+	}
+
+	/**
+	 * Waits for a call made by another thread, rethrowing its exception.
+	 */
+	private V await(CompletableFuture<V> running) {
+		try {
+			return running.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,405 @@
+package com.belladati.sdk.view;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import com.belladati.sdk.util.JsonSupport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A rectangular block of table data with typed access to its cells. Cells are
+ * held in primitive arrays instead of a JSON tree, so reading millions of
+ * cells creates no objects per cell except for text values.
+ * <p>
+ * The layout of table data isn't defined by this API, so a block accepts the
+ * following JSON, which implementations must check against the server's
+ * actual responses before parsing them into blocks:
+ * <ul>
+ * <li>The rows are either the root array, or the first array in the root
+ * object whose first element is an array. Other fields are skipped.</li>
+ * <li>Each row is an array of cells. Rows shorter than the longest row are
+ * padded with empty cells.</li>
+ * <li>Each cell is a number, a string, a boolean, null, or an object holding
+ * the cell's value in its <code>value</code> field.</li>
+ * </ul>
+ * For example, <code>{"rows":[[1,"a"],[2,{"value":"b"}]]}</code> is read as a
+ * block of two rows and two columns.
+ * <p>
+ * Row and column indexes are relative to the block; use
+ * {@link #getStartRow()} and {@link #getStartColumn()} to find the block's
+ * position in the table. Blocks are immutable.
+ * 
+ * 
+ */
+public final class TableBlock {
+
+	private static final byte EMPTY = 0;
+	private static final byte NUMBER = 1;
+	private static final byte TEXT = 2;
+
+	private final int startRow;
+	private final int startColumn;
+	private final int rowCount;
+	private final int columnCount;
+	private final byte[] types;
+	private final double[] numbers;
+	private final String[] texts;
+
+	/**
+	 * Reads a block from a stream of table data, such as the response to a
+	 * table data request. The stream is not closed.
+	 * 
+	 * @param startRow row of the table at which the block starts
+	 * @param startColumn column of the table at which the block starts
+	 * @param in stream of table data
+	 * @return the block read from the stream
+	 * @throws IOException if the stream cannot be read or isn't valid JSON
+	 */
+	public static TableBlock parse(int startRow, int startColumn, InputStream in) throws IOException {
+		try (JsonParser parser = JsonSupport.createParser(in)) {
+			return parse(startRow, startColumn, parser);
+		}
+	}
+
+	/**
+	 * Reads a block from a parser positioned before or at the start of the
+	 * table data.
+	 * 
+	 * @param startRow row of the table at which the block starts
+	 * @param startColumn column of the table at which the block starts
+	 * @param parser parser reading table data
+	 * @return the block read from the parser
+	 * @throws IOException if the data cannot be read or isn't valid JSON
+	 */
+	public static TableBlock parse(int startRow, int startColumn, JsonParser parser) throws IOException {
+		Builder builder = new Builder();
+		JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+		if (token == JsonToken.START_ARRAY) {
+			readRows(parser, builder);
+		} else if (token == JsonToken.START_OBJECT) {
+			boolean found = false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				if (parser.nextToken() == JsonToken.START_ARRAY && !found) {
+					found = readRows(parser, builder);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		return builder.build(startRow, startColumn);
+	}
+
+	/**
+	 * Reads a block from table data already loaded as JSON, such as returned
+	 * by {@link TableView.Table#loadData(int, int, int, int)}.
+	 * 
+	 * @param startRow row of the table at which the block starts
+	 * @param startColumn column of the table at which the block starts
+	 * @param data the table data
+	 * @return the block read from the data
+	 */
+	public static TableBlock fromJson(int startRow, int startColumn, JsonNode data) {
+		try (JsonParser parser = JsonSupport.createParser(data)) {
+			return parse(startRow, startColumn, parser);
+		} catch (IOException e) {
+			// reading a tree doesn't do any I/O
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads an array of rows if its first element is a row, otherwise skips
+	 * the array. The parser is positioned at the start of the array.
+	 */
+	private static boolean readRows(JsonParser parser, Builder builder) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token != JsonToken.START_ARRAY && token != JsonToken.END_ARRAY) {
+			while (token != JsonToken.END_ARRAY) {
+				parser.skipChildren();
+				token = parser.nextToken();
+			}
+			return false;
+		}
+		while (token != JsonToken.END_ARRAY) {
+			builder.startRow();
+			if (token == JsonToken.START_ARRAY) {
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+					readCell(parser, token, builder);
+				}
+			} else {
+				parser.skipChildren();
+			}
+			token = parser.nextToken();
+		}
+		return true;
+	}
+
+	private static void readCell(JsonParser parser, JsonToken token, Builder builder) throws IOException {
+		switch (token) {
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			builder.addNumber(parser.getDoubleValue());
+			break;
+		case VALUE_STRING:
+			builder.addText(parser.getText());
+			break;
+		case VALUE_TRUE:
+			builder.addText("true");
+			break;
+		case VALUE_FALSE:
+			builder.addText("false");
+			break;
+		case START_OBJECT:
+			boolean found = false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				boolean isValue = "value".equals(parser.getCurrentName());
+				JsonToken value = parser.nextToken();
+				if (isValue && !found && value.isScalarValue()) {
+					readCell(parser, value, builder);
+					found = true;
+				} else {
+					parser.skipChildren();
+				}
+			}
+			if (!found) {
+				builder.addEmpty();
+			}
+			break;
+		default:
+			parser.skipChildren();
+			builder.addEmpty();
+		}
+	}
+
+	private TableBlock(int startRow, int startColumn, int rowCount, int columnCount, byte[] types, double[] numbers,
+		String[] texts) {
+		this.startRow = startRow;
+		this.startColumn = startColumn;
+		this.rowCount = rowCount;
+		this.columnCount = columnCount;
+		this.types = types;
+		this.numbers = numbers;
+		this.texts = texts;
+	}
+
+	/**
+	 * Returns the row of the table at which this block starts.
+	 * 
+	 * @return the row of the table at which this block starts
+	 */
+	public int getStartRow() {
+		return startRow;
+	}
+
+	/**
+	 * Returns the column of the table at which this block starts.
+	 * 
+	 * @return the column of the table at which this block starts
+	 */
+	public int getStartColumn() {
+		return startColumn;
+	}
+
+	/**
+	 * Returns the number of rows in this block.
+	 * 
+	 * @return the number of rows in this block
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns the number of columns in this block.
+	 * 
+	 * @return the number of columns in this block
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Returns true if the given cell has no value.
+	 * 
+	 * @param row row of the cell in this block
+	 * @param column column of the cell in this block
+	 * @return true if the cell has no value
+	 * @throws IndexOutOfBoundsException if the cell is outside this block
+	 */
+	public boolean isNull(int row, int column) throws IndexOutOfBoundsException {
+		return types[index(row, column)] == EMPTY;
+	}
+
+	/**
+	 * Returns true if the given cell was sent as a number.
+	 * 
+	 * @param row row of the cell in this block
+	 * @param column column of the cell in this block
+	 * @return true if the cell holds a number
+	 * @throws IndexOutOfBoundsException if the cell is outside this block
+	 */
+	public boolean isNumber(int row, int column) throws IndexOutOfBoundsException {
+		return types[index(row, column)] == NUMBER;
+	}
+
+	/**
+	 * Returns the numeric value of the given cell. Text cells containing a
+	 * plain number return that number; other text cells and empty cells
+	 * return {@link Double#NaN}.
+	 * 
+	 * @param row row of the cell in this block
+	 * @param column column of the cell in this block
+	 * @return the numeric value of the cell, or NaN
+	 * @throws IndexOutOfBoundsException if the cell is outside this block
+	 */
+	public double getDouble(int row, int column) throws IndexOutOfBoundsException {
+		return numbers[index(row, column)];
+	}
+
+	/**
+	 * Returns the value of the given cell as text. Numbers are formatted
+	 * without a fraction if they are integers.
+	 * 
+	 * @param row row of the cell in this block
+	 * @param column column of the cell in this block
+	 * @return the value of the cell as text, or null if it's empty
+	 * @throws IndexOutOfBoundsException if the cell is outside this block
+	 */
+	public String getString(int row, int column) throws IndexOutOfBoundsException {
+		int index = index(row, column);
+		switch (types[index]) {
+		case TEXT:
+			return texts[index];
+		case NUMBER:
+			double value = numbers[index];
+			if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+				return Long.toString((long) value);
+			}
+			return Double.toString(value);
+		default:
+			return null;
+		}
+	}
+
+	private int index(int row, int column) throws IndexOutOfBoundsException {
+		if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+			throw new IndexOutOfBoundsException("Cell " + row + "," + column + " outside block of " + rowCount + "x"
+				+ columnCount);
+		}
+		return row * columnCount + column;
+	}
+
+	@Override
+	public String toString() {
+		return "TableBlock [startRow=" + startRow + ", startColumn=" + startColumn + ", rows=" + rowCount + ", columns="
+			+ columnCount + "]";
+	}
+
+	/**
+	 * Collects cells row by row into growing arrays, then lays them out as a
+	 * rectangle.
+	 */
+	private static final class Builder {
+
+		private byte[] types = new byte[256];
+		private double[] numbers = new double[256];
+		private String[] texts;
+		private int[] rowStarts = new int[16];
+		private int rows;
+		private int cells;
+		private int maxColumns;
+
+		void startRow() {
+			endRow();
+			if (rows == rowStarts.length) {
+				rowStarts = Arrays.copyOf(rowStarts, rows * 2);
+			}
+			rowStarts[rows++] = cells;
+		}
+
+		private void endRow() {
+			if (rows > 0) {
+				maxColumns = Math.max(maxColumns, cells - rowStarts[rows - 1]);
+			}
+		}
+
+		void addNumber(double value) {
+			ensureCapacity();
+			types[cells] = NUMBER;
+			numbers[cells++] = value;
+		}
+
+		void addText(String value) {
+			ensureCapacity();
+			if (texts == null) {
+				texts = new String[types.length];
+			}
+			types[cells] = TEXT;
+			numbers[cells] = parseNumber(value);
+			texts[cells++] = value;
+		}
+
+		void addEmpty() {
+			ensureCapacity();
+			types[cells] = EMPTY;
+			numbers[cells++] = Double.NaN;
+		}
+
+		private void ensureCapacity() {
+			if (cells == types.length) {
+				int capacity = cells * 2;
+				types = Arrays.copyOf(types, capacity);
+				numbers = Arrays.copyOf(numbers, capacity);
+				if (texts != null) {
+					texts = Arrays.copyOf(texts, capacity);
+				}
+			}
+		}
+
+		TableBlock build(int startRow, int startColumn) {
+			endRow();
+			int size = rows * maxColumns;
+			if (size == cells) {
+				// all rows have the same length, use the cells as they are
+				return new TableBlock(startRow, startColumn, rows, maxColumns, Arrays.copyOf(types, size),
+					Arrays.copyOf(numbers, size), texts == null ? null : Arrays.copyOf(texts, size));
+			}
+			byte[] rectTypes = new byte[size];
+			double[] rectNumbers = new double[size];
+			Arrays.fill(rectNumbers, Double.NaN);
+			String[] rectTexts = texts == null ? null : new String[size];
+			for (int row = 0; row < rows; row++) {
+				int from = rowStarts[row];
+				int length = (row + 1 < rows ? rowStarts[row + 1] : cells) - from;
+				System.arraycopy(types, from, rectTypes, row * maxColumns, length);
+				System.arraycopy(numbers, from, rectNumbers, row * maxColumns, length);
+				if (texts != null) {
+					System.arraycopy(texts, from, rectTexts, row * maxColumns, length);
+				}
+			}
+			return new TableBlock(startRow, startColumn, rows, maxColumns, rectTypes, rectNumbers, rectTexts);
+		}
+
+		/**
+		 * Parses text that looks like a plain number, returning NaN otherwise.
+		 */
+		private static double parseNumber(String text) {
+			if (text.isEmpty()) {
+				return Double.NaN;
+			}
+			char first = text.charAt(0);
+			if ((first < '0' || first > '9') && first != '-' && first != '+' && first != '.') {
+				return Double.NaN;
+			}
+			try {
+				return Double.parseDouble(text);
+			} catch (NumberFormatException e) {
+				return Double.NaN;
+			}
+		}
+	}
+}
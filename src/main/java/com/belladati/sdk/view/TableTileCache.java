@@ -0,0 +1,499 @@
+package com.belladati.sdk.view;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.belladati.sdk.ExecutionPolicy;
+import com.belladati.sdk.view.TableView.Table;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Caches the content of a {@link Table} in tiles of a fixed number of rows and
+ * columns. Requests for a range of the table are served from the tiles
+ * covering it, and only tiles not yet in the cache are loaded from the server.
+ * The least recently used tiles are discarded when the cache is full.
+ * <p>
+ * After each request for data, the tiles next to the requested range in the
+ * direction of movement since the previous request are loaded in the
+ * background, along with their headers, so that scrolling through the table
+ * rarely waits for the server. The cache should hold more tiles than are
+ * visible at once plus those prefetched, or prefetched tiles may push out the
+ * visible ones.
+ * <p>
+ * Tiles contain the JSON returned by the table's load methods for the tile's
+ * range. Call {@link #invalidate()} after changing the table's locale.
+ * Instances are thread-safe.
+ * 
+ * 
+ */
+public final class TableTileCache {
+
+	/** default number of rows in a tile */
+	public static final int DEFAULT_TILE_ROWS = 100;
+
+	/** default number of columns in a tile */
+	public static final int DEFAULT_TILE_COLUMNS = 20;
+
+	/** default maximum number of tiles in the cache */
+	public static final int DEFAULT_MAX_TILES = 256;
+
+	/** default number of tiles prefetched in the direction of movement */
+	public static final int DEFAULT_PREFETCH_DISTANCE = 1;
+
+	private static final int DATA = 0;
+	private static final int LEFT_HEADER = 1;
+	private static final int TOP_HEADER = 2;
+
+	private final Table table;
+	private final int tileRows;
+	private final int tileColumns;
+
+	private final Object lock = new Object();
+	private final Map<Long, CompletableFuture<JsonNode>> tiles = new LinkedHashMap<Long, CompletableFuture<JsonNode>>(
+		16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<JsonNode>> eldest) {
+			return size() > maxTiles;
+		}
+	};
+	private volatile int maxTiles = DEFAULT_MAX_TILES;
+	private volatile int prefetchDistance = DEFAULT_PREFETCH_DISTANCE;
+	private volatile Executor executor = ExecutionPolicy.platformThreads().getExecutor();
+
+	private int lastTileRow = -1;
+	private int lastTileColumn = -1;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Creates a cache over the given table using tiles of
+	 * {@link #DEFAULT_TILE_ROWS} rows and {@link #DEFAULT_TILE_COLUMNS}
+	 * columns.
+	 * 
+	 * @param table the table whose content to cache
+	 */
+	public TableTileCache(Table table) {
+		this(table, DEFAULT_TILE_ROWS, DEFAULT_TILE_COLUMNS);
+	}
+
+	/**
+	 * Creates a cache over the given table using tiles of the given size.
+	 * 
+	 * @param table the table whose content to cache
+	 * @param tileRows number of rows in a tile
+	 * @param tileColumns number of columns in a tile
+	 * @throws IllegalArgumentException if a tile dimension is &lt;= 0
+	 */
+	public TableTileCache(Table table, int tileRows, int tileColumns) throws IllegalArgumentException {
+		if (tileRows <= 0 || tileColumns <= 0) {
+			throw new IllegalArgumentException("Tile size must be positive, was " + tileRows + "x" + tileColumns);
+		}
+		this.table = table;
+		this.tileRows = tileRows;
+		this.tileColumns = tileColumns;
+	}
+
+	/**
+	 * Returns the table whose content is cached.
+	 * 
+	 * @return the table whose content is cached
+	 */
+	public Table getTable() {
+		return table;
+	}
+
+	/**
+	 * Sets the maximum number of tiles in the cache, including header tiles.
+	 * Defaults to {@link #DEFAULT_MAX_TILES}.
+	 * 
+	 * @param maxTiles maximum number of tiles in the cache
+	 * @return this cache, to allow chaining
+	 * @throws IllegalArgumentException if maxTiles &lt;= 0
+	 */
+	public TableTileCache setMaxTiles(int maxTiles) throws IllegalArgumentException {
+		if (maxTiles <= 0) {
+			throw new IllegalArgumentException("Max tiles must be positive, was " + maxTiles);
+		}
+		this.maxTiles = maxTiles;
+		return this;
+	}
+
+	/**
+	 * Sets the number of tiles loaded ahead of the requested range in the
+	 * direction of movement. Defaults to {@link #DEFAULT_PREFETCH_DISTANCE}.
+	 * 
+	 * @param prefetchDistance number of tiles to load ahead, 0 to disable
+	 *            prefetching
+	 * @return this cache, to allow chaining
+	 * @throws IllegalArgumentException if prefetchDistance &lt; 0
+	 */
+	public TableTileCache setPrefetchDistance(int prefetchDistance) throws IllegalArgumentException {
+		if (prefetchDistance < 0) {
+			throw new IllegalArgumentException("Prefetch distance must not be negative, was " + prefetchDistance);
+		}
+		this.prefetchDistance = prefetchDistance;
+		return this;
+	}
+
+	/**
+	 * Sets the executor loading tiles in the background. Defaults to the
+	 * executor of {@link ExecutionPolicy#platformThreads()}.
+	 * 
+	 * @param executor executor loading tiles
+	 * @return this cache, to allow chaining
+	 */
+	public TableTileCache setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Returns the tiles of table data covering the given range, loading tiles
+	 * not in the cache at the same time. Tiles may extend beyond the range.
+	 * 
+	 * @param startRow the first data row, starting at 0
+	 * @param endRow the row until which to return data, exclusive
+	 * @param startColumn the first data column, starting at 0
+	 * @param endColumn the column until which to return data, exclusive
+	 * @return the tiles covering the range, row by row
+	 * @throws IllegalArgumentException if any of the indexes is out of bounds,
+	 *             or a first index is greater than the corresponding last index
+	 */
+	public List<Tile> getData(int startRow, int endRow, int startColumn, int endColumn) throws IllegalArgumentException {
+		checkRange(startRow, endRow, table.getRowCount(), "row");
+		checkRange(startColumn, endColumn, table.getColumnCount(), "column");
+		if (startRow == endRow || startColumn == endColumn) {
+			return new ArrayList<Tile>();
+		}
+		int firstTileRow = startRow / tileRows;
+		int lastTileRow = (endRow - 1) / tileRows;
+		int firstTileColumn = startColumn / tileColumns;
+		int lastTileColumn = (endColumn - 1) / tileColumns;
+
+		List<Tile> result = new ArrayList<Tile>();
+		List<CompletableFuture<JsonNode>> futures = new ArrayList<CompletableFuture<JsonNode>>();
+		for (int row = firstTileRow; row <= lastTileRow; row++) {
+			for (int column = firstTileColumn; column <= lastTileColumn; column++) {
+				result.add(new Tile(row * tileRows, rowEnd(row), column * tileColumns, columnEnd(column), null));
+				futures.add(tile(DATA, row, column, false));
+			}
+		}
+		prefetch(firstTileRow, lastTileRow, firstTileColumn, lastTileColumn);
+		for (int i = 0; i < result.size(); i++) {
+			result.set(i, result.get(i).withContent(await(futures.get(i))));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the tiles of the left header covering the given rows. Header
+	 * tiles have no columns.
+	 * 
+	 * @param startRow the first left header row, starting at 0
+	 * @param endRow the row until which to return the header, exclusive
+	 * @return the tiles covering the rows
+	 * @throws IllegalArgumentException if the first or last row are out of
+	 *             bounds, or firstRow is greater than lastRow
+	 */
+	public List<Tile> getLeftHeader(int startRow, int endRow) throws IllegalArgumentException {
+		checkRange(startRow, endRow, table.getRowCount(), "row");
+		List<Tile> result = new ArrayList<Tile>();
+		if (startRow == endRow) {
+			return result;
+		}
+		List<CompletableFuture<JsonNode>> futures = new ArrayList<CompletableFuture<JsonNode>>();
+		for (int row = startRow / tileRows; row <= (endRow - 1) / tileRows; row++) {
+			result.add(new Tile(row * tileRows, rowEnd(row), 0, 0, null));
+			futures.add(tile(LEFT_HEADER, row, 0, false));
+		}
+		for (int i = 0; i < result.size(); i++) {
+			result.set(i, result.get(i).withContent(await(futures.get(i))));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the tiles of the top header covering the given columns. Header
+	 * tiles have no rows.
+	 * 
+	 * @param startColumn the first top header column, starting at 0
+	 * @param endColumn the column until which to return the header, exclusive
+	 * @return the tiles covering the columns
+	 * @throws IllegalArgumentException if the first or last column are out of
+	 *             bounds, or firstColumn is greater than lastColumn
+	 */
+	public List<Tile> getTopHeader(int startColumn, int endColumn) throws IllegalArgumentException {
+		checkRange(startColumn, endColumn, table.getColumnCount(), "column");
+		List<Tile> result = new ArrayList<Tile>();
+		if (startColumn == endColumn) {
+			return result;
+		}
+		List<CompletableFuture<JsonNode>> futures = new ArrayList<CompletableFuture<JsonNode>>();
+		for (int column = startColumn / tileColumns; column <= (endColumn - 1) / tileColumns; column++) {
+			result.add(new Tile(0, 0, column * tileColumns, columnEnd(column), null));
+			futures.add(tile(TOP_HEADER, 0, column, false));
+		}
+		for (int i = 0; i < result.size(); i++) {
+			result.set(i, result.get(i).withContent(await(futures.get(i))));
+		}
+		return result;
+	}
+
+	/**
+	 * Discards all cached tiles and the direction of movement. Tiles being
+	 * loaded are not added to the cache.
+	 */
+	public void invalidate() {
+		synchronized (lock) {
+			tiles.clear();
+			lastTileRow = -1;
+			lastTileColumn = -1;
+		}
+	}
+
+	/**
+	 * Returns the number of tiles in the cache, including tiles being loaded.
+	 * 
+	 * @return the number of tiles in the cache
+	 */
+	public int getTileCount() {
+		synchronized (lock) {
+			return tiles.size();
+		}
+	}
+
+	/**
+	 * Returns the number of requested tiles that were found in the cache,
+	 * including tiles still being prefetched.
+	 * 
+	 * @return the number of requested tiles found in the cache
+	 */
+	public long getHitCount() {
+		synchronized (lock) {
+			return hits;
+		}
+	}
+
+	/**
+	 * Returns the number of requested tiles that had to be loaded.
+	 * 
+	 * @return the number of requested tiles that had to be loaded
+	 */
+	public long getMissCount() {
+		synchronized (lock) {
+			return misses;
+		}
+	}
+
+	/**
+	 * Loads the tiles next to the requested range in the direction of
+	 * movement since the previous request. Before the first movement, the
+	 * tiles below the range are loaded.
+	 */
+	private void prefetch(int firstTileRow, int lastTileRow, int firstTileColumn, int lastTileColumn) {
+		int rowDirection;
+		int columnDirection;
+		synchronized (lock) {
+			rowDirection = this.lastTileRow < 0 ? 1 : Integer.signum(firstTileRow - this.lastTileRow);
+			columnDirection = this.lastTileColumn < 0 ? 0 : Integer.signum(firstTileColumn - this.lastTileColumn);
+			this.lastTileRow = firstTileRow;
+			this.lastTileColumn = firstTileColumn;
+		}
+		int tileRowCount = (table.getRowCount() + tileRows - 1) / tileRows;
+		int tileColumnCount = (table.getColumnCount() + tileColumns - 1) / tileColumns;
+		for (int distance = 1; distance <= prefetchDistance; distance++) {
+			int row = rowDirection > 0 ? lastTileRow + distance : firstTileRow - distance;
+			if (rowDirection != 0 && row >= 0 && row < tileRowCount) {
+				for (int column = firstTileColumn; column <= lastTileColumn; column++) {
+					tile(DATA, row, column, true);
+				}
+				if (table.hasLeftHeader()) {
+					tile(LEFT_HEADER, row, 0, true);
+				}
+			}
+			int column = columnDirection > 0 ? lastTileColumn + distance : firstTileColumn - distance;
+			if (columnDirection != 0 && column >= 0 && column < tileColumnCount) {
+				for (row = firstTileRow; row <= lastTileRow; row++) {
+					tile(DATA, row, column, true);
+				}
+				if (table.hasTopHeader()) {
+					tile(TOP_HEADER, 0, column, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached tile, starting to load it in the background if it
+	 * isn't in the cache.
+	 */
+	private CompletableFuture<JsonNode> tile(int kind, int tileRow, int tileColumn, boolean prefetch) {
+		Long key = ((long) kind << 62) | ((long) tileRow << 31) | tileColumn;
+		CompletableFuture<JsonNode> future;
+		synchronized (lock) {
+			future = tiles.get(key);
+			if (future != null) {
+				if (!prefetch) {
+					hits++;
+				}
+				return future;
+			}
+			if (!prefetch) {
+				misses++;
+			}
+			future = new CompletableFuture<JsonNode>();
+			tiles.put(key, future);
+		}
+		CompletableFuture<JsonNode> loading = future;
+		try {
+			executor.execute(() -> load(key, loading, kind, tileRow, tileColumn));
+		} catch (RejectedExecutionException e) {
+			discard(key, future, e);
+		}
+		return future;
+	}
+
+	private void load(Long key, CompletableFuture<JsonNode> future, int kind, int tileRow, int tileColumn) {
+		try {
+			JsonNode content;
+			if (kind == LEFT_HEADER) {
+				content = table.loadLeftHeader(tileRow * tileRows, rowEnd(tileRow));
+			} else if (kind == TOP_HEADER) {
+				content = table.loadTopHeader(tileColumn * tileColumns, columnEnd(tileColumn));
+			} else {
+				content = table.loadData(tileRow * tileRows, rowEnd(tileRow), tileColumn * tileColumns, columnEnd(tileColumn));
+			}
+			future.complete(content);
+		} catch (RuntimeException | Error e) {
+			discard(key, future, e);
+		}
+	}
+
+	/**
+	 * Removes a tile that failed to load, so it's loaded again when next
+	 * requested.
+	 */
+	private void discard(Long key, CompletableFuture<JsonNode> future, Throwable error) {
+		synchronized (lock) {
+			tiles.remove(key, future);
+		}
+		future.completeExceptionally(error);
+	}
+
+	private int rowEnd(int tileRow) {
+		return Math.min((tileRow + 1) * tileRows, table.getRowCount());
+	}
+
+	private int columnEnd(int tileColumn) {
+		return Math.min((tileColumn + 1) * tileColumns, table.getColumnCount());
+	}
+
+	private static void checkRange(int start, int end, int count, String name) throws IllegalArgumentException {
+		if (start < 0 || end > count || start > end) {
+			throw new IllegalArgumentException("Invalid " + name + " range " + start + "-" + end + " for " + count + " " + name
+				+ "s");
+		}
+	}
+
+	/**
+	 * Waits for a tile, rethrowing the exception it failed with.
+	 */
+	private static JsonNode await(CompletableFuture<JsonNode> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * A rectangular part of a table and its content.
+	 * 
+	 * 
+	 */
+	public static final class Tile {
+
+		private final int startRow;
+		private final int endRow;
+		private final int startColumn;
+		private final int endColumn;
+		private final JsonNode content;
+
+		private Tile(int startRow, int endRow, int startColumn, int endColumn, JsonNode content) {
+			this.startRow = startRow;
+			this.endRow = endRow;
+			this.startColumn = startColumn;
+			this.endColumn = endColumn;
+			this.content = content;
+		}
+
+		private Tile withContent(JsonNode content) {
+			return new Tile(startRow, endRow, startColumn, endColumn, content);
+		}
+
+		/**
+		 * Returns the first row of this tile.
+		 * 
+		 * @return the first row of this tile
+		 */
+		public int getStartRow() {
+			return startRow;
+		}
+
+		/**
+		 * Returns the row until which this tile extends, exclusive.
+		 * 
+		 * @return the row until which this tile extends
+		 */
+		public int getEndRow() {
+			return endRow;
+		}
+
+		/**
+		 * Returns the first column of this tile.
+		 * 
+		 * @return the first column of this tile
+		 */
+		public int getStartColumn() {
+			return startColumn;
+		}
+
+		/**
+		 * Returns the column until which this tile extends, exclusive.
+		 * 
+		 * @return the column until which this tile extends
+		 */
+		public int getEndColumn() {
+			return endColumn;
+		}
+
+		/**
+		 * Returns the content of this tile as loaded from the table.
+		 * 
+		 * @return the content of this tile
+		 */
+		public JsonNode getContent() {
+			return content;
+		}
+
+		@Override
+		public String toString() {
+			return "Tile [rows=" + startRow + "-" + endRow + ", columns=" + startColumn + "-" + endColumn + "]";
+		}
+	}
+}
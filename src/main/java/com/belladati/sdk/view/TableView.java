@@ -54,7 +54,9 @@ public interface TableView extends View {
 	 * columns, it is recommended not to load the entire table at once. You can
 	 * use the row and column parameters in the load methods to only load the
 	 * part of the table currently accessed by the user, then dynamically load
-	 * more content later on as needed.
+	 * more content later on as needed. {@link TableTileCache} does this
+	 * automatically, caching the loaded parts and loading ahead while the user
+	 * scrolls.
 	 * 
 	 * 
 	 */
@@ -124,6 +126,31 @@ public interface TableView extends View {
 		 */
 		JsonNode loadData(int startRow, int endRow, int startColumn, int endColumn) throws IllegalArgumentException;
 
+		/**
+		 * Loads the table's data between the given row and column indexes as
+		 * a {@link TableBlock}, providing typed access to the cells.
+		 * <p>
+		 * The default implementation builds the JSON tree using
+		 * {@link #loadData(int, int, int, int)} and converts it, so it costs
+		 * more than loading the tree alone. Reading the data without building
+		 * a tree depends on implementations overriding this method to parse
+		 * the server's response with
+		 * {@link TableBlock#parse(int, int, java.io.InputStream)}.
+		 * 
+		 * @param startRow the first data row to load, starting at 0
+		 * @param endRow the row until which to load, exclusive
+		 * @param startColumn the first data column to load, starting at 0
+		 * @param endColumn the column until which to load, exclusive
+		 * @return the table's data between the given row and column indexes
+		 * @throws IllegalArgumentException if any of the indexes is out of
+		 *             bounds, or a first index is greater than the
+		 *             corresponding last index
+		 */
+		default TableBlock loadDataBlock(int startRow, int endRow, int startColumn, int endColumn)
+			throws IllegalArgumentException {
+			return TableBlock.fromJson(startRow, startColumn, loadData(startRow, endRow, startColumn, endColumn));
+		}
+
 		/**
 		 * Returns the locale in which to load table contents. Use
 		 * {@link ViewLoader#setLocale(Locale)} before calling
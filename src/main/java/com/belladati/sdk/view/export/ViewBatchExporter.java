@@ -0,0 +1,226 @@
+package com.belladati.sdk.view.export;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.belladati.sdk.BellaDatiService;
+import com.belladati.sdk.util.BulkResult;
+import com.belladati.sdk.util.PageOrientation;
+import com.belladati.sdk.util.PageSize;
+
+/**
+ * Exports many views to files in a directory, running several exports at the
+ * same time. Each view is streamed from the server's response to its own file,
+ * named after the view's ID. Characters that may not be valid in file names
+ * are replaced, and if several views of a batch map to the same name, a
+ * counter is appended to all but the first. A {@link ViewExportResult}
+ * records where each view was written, how long it took and why it failed, if
+ * it did. One failed view doesn't affect the others.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * 
+ */
+public final class ViewBatchExporter {
+
+	/** default number of views exported at the same time */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	private final BellaDatiService service;
+	private final Path directory;
+
+	private ViewExportType exportType = ViewExportType.PDF;
+	private PageSize pageSize;
+	private PageOrientation pageOrientation;
+	private Integer width;
+	private Integer height;
+	private int parallelism = DEFAULT_PARALLELISM;
+	private Executor executor;
+	private Consumer<ViewExportResult> listener;
+
+	/**
+	 * Creates an exporter writing files to the given directory. The directory
+	 * is created if it doesn't exist.
+	 * 
+	 * @param service service to export through
+	 * @param directory directory to write files to
+	 */
+	public ViewBatchExporter(BellaDatiService service, Path directory) {
+		this.service = service;
+		this.directory = directory;
+	}
+
+	/**
+	 * Sets the format to export views in. Defaults to
+	 * {@link ViewExportType#PDF}.
+	 * 
+	 * @param exportType the format to export views in
+	 * @return this exporter, to allow chaining
+	 */
+	public ViewBatchExporter setExportType(ViewExportType exportType) {
+		this.exportType = exportType;
+		return this;
+	}
+
+	/**
+	 * Sets the page size and orientation of PDF exports.
+	 * 
+	 * @param pageSize optional size of an exported page
+	 * @param pageOrientation optional orientation of an exported page
+	 * @return this exporter, to allow chaining
+	 */
+	public ViewBatchExporter setPage(PageSize pageSize, PageOrientation pageOrientation) {
+		this.pageSize = pageSize;
+		this.pageOrientation = pageOrientation;
+		return this;
+	}
+
+	/**
+	 * Sets the image size of PNG exports.
+	 * 
+	 * @param width optional width of an exported image
+	 * @param height optional height of an exported image
+	 * @return this exporter, to allow chaining
+	 */
+	public ViewBatchExporter setImageSize(Integer width, Integer height) {
+		this.width = width;
+		this.height = height;
+		return this;
+	}
+
+	/**
+	 * Sets the number of views exported at the same time. Defaults to
+	 * {@link #DEFAULT_PARALLELISM}.
+	 * 
+	 * @param parallelism number of views exported at the same time
+	 * @return this exporter, to allow chaining
+	 * @throws IllegalArgumentException if parallelism &lt;= 0
+	 */
+	public ViewBatchExporter setParallelism(int parallelism) throws IllegalArgumentException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the executor running the exports. Defaults to the executor of the
+	 * service's {@link com.belladati.sdk.ExecutionPolicy}, whose request limit
+	 * applies to the export requests on any executor.
+	 * 
+	 * @param executor executor running the exports
+	 * @return this exporter, to allow chaining
+	 */
+	public ViewBatchExporter setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets a listener receiving the result of each view as soon as its export
+	 * has completed or failed. The listener is called from the threads running
+	 * the exports. Exceptions thrown by the listener are ignored.
+	 * 
+	 * @param listener listener to notify, or null
+	 * @return this exporter, to allow chaining
+	 */
+	public ViewBatchExporter setListener(Consumer<ViewExportResult> listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Exports the views with the given IDs, waiting until all exports have
+	 * completed or failed. Files of the same name are replaced.
+	 * 
+	 * @param viewIds IDs of the views to export
+	 * @return the results of all exports, in the order the IDs were given
+	 * @throws IOException if the directory cannot be created
+	 */
+	public List<ViewExportResult> export(Collection<String> viewIds) throws IOException {
+		Files.createDirectories(directory);
+		Map<String, Path> files = assignFiles(viewIds);
+		BulkResult<ViewExportResult> results = BulkResult.load(viewIds, id -> exportView(id, files.get(id)), parallelism,
+			executor != null ? executor : service.getExecutionPolicy().getExecutor());
+		List<ViewExportResult> list = new ArrayList<ViewExportResult>();
+		for (String viewId : new LinkedHashSet<String>(viewIds)) {
+			ViewExportResult result = results.getResults().get(viewId);
+			if (result == null) {
+				// exports record their own failures, so this export couldn't be started
+				result = new ViewExportResult(viewId, null, -1, 0, results.getErrors().get(viewId));
+			}
+			list.add(result);
+		}
+		return list;
+	}
+
+	/**
+	 * Assigns a distinct file to each view, appending a counter to names
+	 * already taken. Names are compared ignoring case, since file systems may
+	 * not distinguish them.
+	 */
+	private Map<String, Path> assignFiles(Collection<String> viewIds) {
+		Map<String, Path> files = new HashMap<String, Path>();
+		Set<String> taken = new HashSet<String>();
+		for (String viewId : new LinkedHashSet<String>(viewIds)) {
+			String base = baseName(viewId);
+			String name = base;
+			for (int i = 2; !taken.add(name.toLowerCase(Locale.ROOT)); i++) {
+				name = base + "-" + i;
+			}
+			files.put(viewId, directory.resolve(name + "." + exportType.getFileExtension()));
+		}
+		return files;
+	}
+
+	/**
+	 * Exports a single view to the given file, recording any failure in the
+	 * result.
+	 */
+	private ViewExportResult exportView(String viewId, Path file) {
+		long start = System.nanoTime();
+		ViewExportResult result;
+		try {
+			ViewExporter exporter = service.setupViewExporter(viewId);
+			long size = exportType == ViewExportType.PNG ? exporter.exportPngTo(file, width, height)
+				: exporter.exportPdfTo(file, pageSize, pageOrientation);
+			result = new ViewExportResult(viewId, file, size, elapsedMillis(start), null);
+		} catch (IOException | RuntimeException e) {
+			result = new ViewExportResult(viewId, null, -1, elapsedMillis(start), e);
+		}
+		if (listener != null) {
+			try {
+				listener.accept(result);
+			} catch (RuntimeException e) {
+				// the listener's failure doesn't change the export's result
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the file name for a view without extension, replacing
+	 * characters that may not be valid in file names.
+	 */
+	private static String baseName(String viewId) {
+		return viewId.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+
+	private static long elapsedMillis(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+}
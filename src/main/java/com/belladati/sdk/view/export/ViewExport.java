@@ -1,14 +1,35 @@
 package com.belladati.sdk.view.export;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * This class represents export of the view. There are several possibilities as
  * view can be exported as PDF, XLS, ... depending on the view type.
+ * <p>
+ * The export's stream reads the document as it is received from the server.
+ * Use {@link #transferTo(WritableByteChannel)} or {@link #writeTo(Path)} to
+ * write it to its destination in small pieces, without holding the whole
+ * document in memory. The stream can be read only once.
  * 
  * 
  */
-public class ViewExport {
+public class ViewExport implements Closeable {
+
+	/** size of the buffer used to copy an export */
+	private static final int BUFFER_SIZE = 64 * 1024;
 
 	private String viewId;
 	private InputStream inputStream;
@@ -38,6 +59,117 @@ public class ViewExport {
 		this.exportType = exportType;
 	}
 
+	/**
+	 * Writes the exported document to the given channel and closes this
+	 * export's stream. The channel is not closed.
+	 * 
+	 * @param target channel to write to
+	 * @return the number of bytes written
+	 * @throws IOException if reading the export or writing to the channel
+	 *             fails
+	 */
+	public long transferTo(WritableByteChannel target) throws IOException {
+		try (ReadableByteChannel source = openSource()) {
+			if (target instanceof FileChannel) {
+				return transfer(source, (FileChannel) target);
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			long total = 0;
+			while (source.read(buffer) >= 0 || buffer.position() > 0) {
+				buffer.flip();
+				total += target.write(buffer);
+				buffer.compact();
+			}
+			return total;
+		}
+	}
+
+	/**
+	 * Writes the exported document to the given stream and closes this
+	 * export's stream. The target stream is not closed.
+	 * 
+	 * @param target stream to write to
+	 * @return the number of bytes written
+	 * @throws IOException if reading the export or writing to the stream fails
+	 */
+	public long transferTo(OutputStream target) throws IOException {
+		try (InputStream source = source()) {
+			return source.transferTo(target);
+		}
+	}
+
+	/**
+	 * Writes the exported document to the file at the given path, replacing
+	 * the file if it exists, and closes this export's stream. The document is
+	 * written to a temporary file first, so the file at the given path is
+	 * never incomplete.
+	 * 
+	 * @param path path of the file to write
+	 * @return the number of bytes written
+	 * @throws IOException if reading the export or writing the file fails
+	 */
+	public long writeTo(Path path) throws IOException {
+		Path absolute = path.toAbsolutePath();
+		Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+		try {
+			long size;
+			try (ReadableByteChannel source = openSource();
+				FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				size = transfer(source, target);
+			}
+			try {
+				Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return size;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Closes this export's stream without reading the rest of the document.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (inputStream != null) {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Returns this export's stream, failing if there is none.
+	 */
+	private InputStream source() throws IOException {
+		if (inputStream == null) {
+			throw new IOException("Export of view " + viewId + " has no content");
+		}
+		return inputStream;
+	}
+
+	/**
+	 * Returns a channel reading this export's stream.
+	 */
+	private ReadableByteChannel openSource() throws IOException {
+		return Channels.newChannel(source());
+	}
+
+	/**
+	 * Copies the source to the file's current position, letting the file
+	 * channel read directly into its own buffers.
+	 */
+	private static long transfer(ReadableByteChannel source, FileChannel target) throws IOException {
+		long position = target.position();
+		long total = 0;
+		long transferred;
+		while ((transferred = target.transferFrom(source, position + total, BUFFER_SIZE)) > 0) {
+			total += transferred;
+		}
+		target.position(position + total);
+		return total;
+	}
+
 	@Override
 	public String toString() {
 		return "ViewExport [viewId=" + viewId + ", inputStream=" + inputStream + ", exportType=" + exportType + "]";
@@ -0,0 +1,88 @@
+package com.belladati.sdk.view.export;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of exporting a single view with a {@link ViewBatchExporter}:
+ * either the file the view was written to, or the exception that prevented
+ * the export, along with the time the export took.
+ * 
+ * 
+ */
+public final class ViewExportResult {
+
+	private final String viewId;
+	private final Path file;
+	private final long size;
+	private final long durationMillis;
+	private final Throwable error;
+
+	ViewExportResult(String viewId, Path file, long size, long durationMillis, Throwable error) {
+		this.viewId = viewId;
+		this.file = file;
+		this.size = size;
+		this.durationMillis = durationMillis;
+		this.error = error;
+	}
+
+	/**
+	 * Returns the ID of the exported view.
+	 * 
+	 * @return the ID of the exported view
+	 */
+	public String getViewId() {
+		return viewId;
+	}
+
+	/**
+	 * Returns true if the view was exported successfully.
+	 * 
+	 * @return true if the view was exported successfully
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	/**
+	 * Returns the file the view was exported to.
+	 * 
+	 * @return the file the view was exported to, or null if the export failed
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the size of the exported file in bytes.
+	 * 
+	 * @return the size of the exported file, or -1 if the export failed
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the time taken to export the view, including writing the file.
+	 * 
+	 * @return the time taken in milliseconds
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * Returns the exception that prevented the export.
+	 * 
+	 * @return the exception that prevented the export, or null if the export
+	 *         was successful
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "ViewExportResult [viewId=" + viewId + ", file=" + file + ", size=" + size + ", durationMillis="
+			+ durationMillis + ", error=" + error + "]";
+	}
+}
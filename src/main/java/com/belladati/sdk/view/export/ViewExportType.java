@@ -1,5 +1,7 @@
 package com.belladati.sdk.view.export;
 
+import java.util.Locale;
+
 /**
  * This enumeration determines view export types. Not every view supports all types of
  * exports.
@@ -21,4 +23,13 @@ public enum ViewExportType {
 	public String getMediaType() {
 		return mediaType;
 	}
+
+	/**
+	 * Returns the extension of files of this type, without a leading dot.
+	 * 
+	 * @return the extension of files of this type
+	 */
+	public String getFileExtension() {
+		return name().toLowerCase(Locale.ENGLISH);
+	}
 }
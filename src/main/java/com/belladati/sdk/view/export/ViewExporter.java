@@ -1,5 +1,9 @@
 package com.belladati.sdk.view.export;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
 import com.belladati.sdk.util.IdElement;
 import com.belladati.sdk.util.PageOrientation;
 import com.belladati.sdk.util.PageSize;
@@ -19,7 +23,8 @@ public interface ViewExporter extends IdElement {
 	String getId();
 
 	/**
-	 * Exports view as PDF.
+	 * Exports view as PDF. The returned export streams the document from the
+	 * server's response; it isn't read into memory before being returned.
 	 * 
 	 * @param pageSize optional size of an exported page
 	 * @param pageOrientation optional orientation of an exported page
@@ -28,7 +33,8 @@ public interface ViewExporter extends IdElement {
 	ViewExport exportPdf(PageSize pageSize, PageOrientation pageOrientation);
 
 	/**
-	 * Exports view as PNG image.
+	 * Exports view as PNG image. The returned export streams the image from
+	 * the server's response; it isn't read into memory before being returned.
 	 * 
 	 * @param width optional width of an exported image
 	 * @param height optional height of an exported image
@@ -36,4 +42,74 @@ public interface ViewExporter extends IdElement {
 	 */
 	ViewExport exportPng(Integer width, Integer height);
 
+	/**
+	 * Exports view as PDF and writes it to the file at the given path,
+	 * replacing the file if it exists. The document is copied from the
+	 * server's response to the file in small pieces, without holding it in
+	 * memory.
+	 * 
+	 * @param path path of the file to write
+	 * @param pageSize optional size of an exported page
+	 * @param pageOrientation optional orientation of an exported page
+	 * @return the number of bytes written
+	 * @throws IOException if writing the file fails
+	 */
+	default long exportPdfTo(Path path, PageSize pageSize, PageOrientation pageOrientation) throws IOException {
+		try (ViewExport export = exportPdf(pageSize, pageOrientation)) {
+			return export.writeTo(path);
+		}
+	}
+
+	/**
+	 * Exports view as PDF and writes it to the given channel. The document is
+	 * copied from the server's response to the channel in small pieces,
+	 * without holding it in memory. The channel is not closed.
+	 * 
+	 * @param target channel to write to
+	 * @param pageSize optional size of an exported page
+	 * @param pageOrientation optional orientation of an exported page
+	 * @return the number of bytes written
+	 * @throws IOException if writing to the channel fails
+	 */
+	default long exportPdfTo(WritableByteChannel target, PageSize pageSize, PageOrientation pageOrientation)
+		throws IOException {
+		try (ViewExport export = exportPdf(pageSize, pageOrientation)) {
+			return export.transferTo(target);
+		}
+	}
+
+	/**
+	 * Exports view as PNG image and writes it to the file at the given path,
+	 * replacing the file if it exists. The image is copied from the server's
+	 * response to the file in small pieces, without holding it in memory.
+	 * 
+	 * @param path path of the file to write
+	 * @param width optional width of an exported image
+	 * @param height optional height of an exported image
+	 * @return the number of bytes written
+	 * @throws IOException if writing the file fails
+	 */
+	default long exportPngTo(Path path, Integer width, Integer height) throws IOException {
+		try (ViewExport export = exportPng(width, height)) {
+			return export.writeTo(path);
+		}
+	}
+
+	/**
+	 * Exports view as PNG image and writes it to the given channel. The image
+	 * is copied from the server's response to the channel in small pieces,
+	 * without holding it in memory. The channel is not closed.
+	 * 
+	 * @param target channel to write to
+	 * @param width optional width of an exported image
+	 * @param height optional height of an exported image
+	 * @return the number of bytes written
+	 * @throws IOException if writing to the channel fails
+	 */
+	default long exportPngTo(WritableByteChannel target, Integer width, Integer height) throws IOException {
+		try (ViewExport export = exportPng(width, height)) {
+			return export.transferTo(target);
+		}
+	}
+
 }
\ No newline at end of file